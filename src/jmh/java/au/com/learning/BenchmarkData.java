@@ -0,0 +1,67 @@
+package au.com.learning;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deterministic catalog fixtures shared by the benchmarks, shaped like the seed in data.sql.
+ */
+public final class BenchmarkData {
+
+    public static final String[] GENRES = {
+            "Fiction", "Romance", "Science Fiction", "Drama", "Fantasy", "Thriller", "Adventure", "Mystery"
+    };
+
+    private static final int BOOKS_PER_AUTHOR = 5;
+
+    private BenchmarkData() {
+    }
+
+    public static List<Author> authors(int count) {
+        List<Author> authors = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Author author = new Author();
+            author.setId((long) i + 1);
+            author.setFirstName("First" + i);
+            author.setLastName("Last" + i);
+            author.setEmail("author" + i + "@example.com");
+            author.setBio("Award-winning novelist known for character-driven storytelling.");
+            author.setGenere(GENRES[i % GENRES.length]);
+            author.setBooks(new ArrayList<>());
+            authors.add(author);
+        }
+        return authors;
+    }
+
+    public static List<Book> books(int count) {
+        List<Author> authors = authors(Math.max(1, count / BOOKS_PER_AUTHOR));
+        List<Book> books = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Author author = authors.get(i % authors.size());
+            Book book = new Book();
+            book.setId((long) i + 1);
+            book.setTitle("Title " + i);
+            book.setGenere(GENRES[i % GENRES.length]);
+            book.setAuthor(author);
+            author.getBooks().add(book);
+            books.add(book);
+        }
+        return books;
+    }
+
+    public static List<BookResponseDTO> bookResponses(int count) {
+        List<BookResponseDTO> responses = new ArrayList<>(count);
+        for (Book book : books(count)) {
+            Author author = book.getAuthor();
+            AuthorResponseDTO authorResponse = new AuthorResponseDTO(author.getId(), author.getFirstName(),
+                    author.getLastName(), author.getEmail(), author.getBio(), author.getGenere(), null);
+            responses.add(new BookResponseDTO(book.getId(), book.getTitle(), book.getGenere(), authorResponse));
+        }
+        return responses;
+    }
+}
@@ -0,0 +1,153 @@
+package au.com.learning.config;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Time to a loaded database at startup, for a generated seed of {@code books} books by 1000 authors:
+ * replaying the seed script statement by statement as spring.sql.init does, building a snapshot with RUNSCRIPT or
+ * CSVREAD, and opening a copy of an already built snapshot (the steady-state path of the snapshot profile).
+ * Run with -Djmh.includes=DatabaseStartupBenchmark.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class DatabaseStartupBenchmark {
+
+    private static final int AUTHORS = 1_000;
+    private static final int ROWS_PER_INSERT = 1_000;
+
+    @Param({"1000000"})
+    private int books;
+
+    private final AtomicInteger runs = new AtomicInteger();
+    private Path directory;
+    private Path seedScript;
+    private Path authorsCsv;
+    private Path booksCsv;
+    private Path snapshot;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException, SQLException {
+        directory = Files.createTempDirectory("startup-benchmark");
+        seedScript = directory.resolve("seed.sql");
+        authorsCsv = directory.resolve("authors.csv");
+        booksCsv = directory.resolve("books.csv");
+        writeSeedScript();
+        writeCsv();
+        snapshot = directory.resolve("snapshot");
+        H2Snapshot.build(snapshot, "classpath:/schema.sql", seedScript.toString());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (var files = Files.walk(directory)) {
+            files.sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long replaySeedScript() throws SQLException {
+        String url = "jdbc:h2:mem:replay-" + runs.incrementAndGet() + ";DB_CLOSE_DELAY=-1";
+        new ResourceDatabasePopulator(new ClassPathResource("schema.sql"), new FileSystemResource(seedScript))
+                .execute(new DriverManagerDataSource(url, "sa", ""));
+        return countAndDrop(url);
+    }
+
+    @Benchmark
+    public long buildSnapshotWithRunScript() throws SQLException {
+        Path database = directory.resolve("runscript-" + runs.incrementAndGet());
+        H2Snapshot.build(database, "classpath:/schema.sql", seedScript.toString());
+        return countAndDrop(H2Snapshot.url(database));
+    }
+
+    @Benchmark
+    public long buildSnapshotWithCsvRead() throws SQLException {
+        Path database = directory.resolve("csvread-" + runs.incrementAndGet());
+        try (Connection connection = DriverManager.getConnection(H2Snapshot.url(database), "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:/schema.sql'");
+            statement.execute("INSERT INTO author (id, first_name, last_name, email, bio, genere) "
+                    + "SELECT CAST(id AS BIGINT), first_name, last_name, email, bio, genere FROM CSVREAD('" + authorsCsv + "')");
+            statement.execute("INSERT INTO book (id, title, genere, author_id) "
+                    + "SELECT CAST(id AS BIGINT), title, genere, CAST(author_id AS BIGINT) FROM CSVREAD('" + booksCsv + "')");
+            statement.execute("SHUTDOWN COMPACT");
+        }
+        return countAndDrop(H2Snapshot.url(database));
+    }
+
+    @Benchmark
+    public long openSnapshotCopy() throws IOException, SQLException {
+        Path working = directory.resolve("copy-" + runs.incrementAndGet());
+        Files.copy(H2Snapshot.file(snapshot), H2Snapshot.file(working), StandardCopyOption.REPLACE_EXISTING);
+        return countAndDrop(H2Snapshot.url(working));
+    }
+
+    private static long countAndDrop(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM book")) {
+            count.next();
+            long books = count.getLong(1);
+            statement.execute("DROP ALL OBJECTS DELETE FILES");
+            return books;
+        }
+    }
+
+    private void writeSeedScript() throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(seedScript)) {
+            for (int id = 1; id <= AUTHORS; id++) {
+                out.write(id % ROWS_PER_INSERT == 1 ? "INSERT INTO author (id, first_name, last_name, email, bio, genere) VALUES\n" : ",\n");
+                out.write("(" + id + ", 'First" + id + "', 'Last" + id + "', 'author" + id + "@example.com', 'Bio', '" + genre(id) + "')");
+                if (id % ROWS_PER_INSERT == 0 || id == AUTHORS) {
+                    out.write(";\n");
+                }
+            }
+            for (int id = 1; id <= books; id++) {
+                out.write(id % ROWS_PER_INSERT == 1 ? "INSERT INTO book (id, title, genere, author_id) VALUES\n" : ",\n");
+                out.write("(" + id + ", 'Book " + id + "', '" + genre(id) + "', " + (id % AUTHORS + 1) + ")");
+                if (id % ROWS_PER_INSERT == 0 || id == books) {
+                    out.write(";\n");
+                }
+            }
+        }
+    }
+
+    private void writeCsv() throws IOException {
+        try (BufferedWriter out = Files.newBufferedWriter(authorsCsv)) {
+            out.write("ID,FIRST_NAME,LAST_NAME,EMAIL,BIO,GENERE\n");
+            for (int id = 1; id <= AUTHORS; id++) {
+                out.write(id + ",First" + id + ",Last" + id + ",author" + id + "@example.com,Bio," + genre(id) + "\n");
+            }
+        }
+        try (BufferedWriter out = Files.newBufferedWriter(booksCsv)) {
+            out.write("ID,TITLE,GENERE,AUTHOR_ID\n");
+            for (int id = 1; id <= books; id++) {
+                out.write(id + ",Book " + id + "," + genre(id) + "," + (id % AUTHORS + 1) + "\n");
+            }
+        }
+    }
+
+    private static String genre(int id) {
+        return "Genre" + (id % 20);
+    }
+}
@@ -0,0 +1,35 @@
+package au.com.learning.dto;
+
+import au.com.learning.BenchmarkData;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    @Param({"1", "100", "10000"})
+    private int size;
+
+    private ObjectMapper objectMapper;
+    private List<BookResponseDTO> books;
+
+    @Setup
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        books = BenchmarkData.bookResponses(size);
+    }
+
+    @Benchmark
+    public byte[] serializeBookResponses() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(books);
+    }
+}
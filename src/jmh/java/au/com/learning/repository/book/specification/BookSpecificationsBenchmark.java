@@ -0,0 +1,66 @@
+package au.com.learning.repository.book.specification;
+
+import au.com.learning.ApiBookApplication;
+import au.com.learning.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Measures turning the filter specifications into criteria predicates, the per-request work done before
+ * Hibernate renders SQL for /filterBooks. Boots the application without a web server to get a real CriteriaBuilder.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BookSpecificationsBenchmark {
+
+    @Param({"1", "60", "1000"})
+    private int authorCount;
+
+    private ConfigurableApplicationContext context;
+    private EntityManager entityManager;
+    private CriteriaBuilder criteriaBuilder;
+    private List<Long> authorIds;
+
+    @Setup
+    public void setup() {
+        context = new SpringApplicationBuilder(ApiBookApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.show-sql=false", "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN", "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN");
+        entityManager = context.getBean(EntityManagerFactory.class).createEntityManager();
+        criteriaBuilder = entityManager.getCriteriaBuilder();
+        authorIds = LongStream.rangeClosed(1, authorCount).boxed().toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManager.close();
+        context.close();
+    }
+
+    @Benchmark
+    public Predicate buildAuthorAndGenrePredicate() {
+        CriteriaQuery<Book> query = criteriaBuilder.createQuery(Book.class);
+        Root<Book> root = query.from(Book.class);
+        Specification<Book> specification = Specification.where(BookSpecifications.hasAuthorIn(authorIds))
+                .and(BookSpecifications.hasGenre("Fiction"));
+        return specification.toPredicate(root, query, criteriaBuilder);
+    }
+}
@@ -0,0 +1,37 @@
+package au.com.learning.service;
+
+import au.com.learning.BenchmarkData;
+import au.com.learning.dto.BookResponseDTO;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GenreGroupingBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private List<BookResponseDTO> books;
+
+    @Setup
+    public void setup() {
+        // the query hands rows over ordered by genre, so group an already sorted list
+        books = BenchmarkData.bookResponses(size).stream()
+                .sorted(Comparator.comparing(BookResponseDTO::genere).thenComparing(BookResponseDTO::id))
+                .toList();
+    }
+
+    @Benchmark
+    public Map<String, List<BookResponseDTO>> groupByGenre() {
+        return BookService.groupByGenre(books.stream());
+    }
+}
@@ -0,0 +1,52 @@
+package au.com.learning.service;
+
+import au.com.learning.BenchmarkData;
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    @Param({"100", "10000"})
+    private int size;
+
+    private BookService bookService;
+    private AuthorService authorService;
+    private List<Book> books;
+    private List<Author> authors;
+
+    @Setup
+    public void setup() {
+        bookService = new BookService(null, null, null, null, null, null, null);
+        authorService = new AuthorService();
+        books = BenchmarkData.books(size);
+        authors = books.stream().map(Book::getAuthor).distinct().collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<BookResponseDTO> mapToBookResponseDTO() {
+        return books.stream().map(bookService::mapToBookResponseDTO).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AuthorResponseDTO> mapBookToAuthorResponseDTO() {
+        return books.stream().map(bookService::mapToAuthorResponseDTO).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<AuthorResponseDTO> mapAuthorToAuthorResponseDTO() {
+        return authors.stream().map(authorService::mapToAuthorResponseDTO).collect(Collectors.toList());
+    }
+}
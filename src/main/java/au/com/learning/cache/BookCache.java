@@ -0,0 +1,124 @@
+package au.com.learning.cache;
+
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@code BookResponseDTO}s served by {@code getBookById} and {@code getBooksByIds}, keyed by book id. A put only
+ * lands when the book is at least as new as the cached entry, comparing the book and author versions it carries, so
+ * a reader that loaded a row before a concurrent update committed cannot overwrite the updated entry. For that check
+ * to have something to compare against, writers replace the entries they changed with the new books once their
+ * transaction commits ({@link #putAfterCommit}) rather than evicting them.
+ */
+@Component
+@Slf4j
+public class BookCache {
+
+    public static final String BOOKS = "books";
+
+    private static final Comparator<Long> VERSION_ORDER = Comparator.nullsFirst(Comparator.naturalOrder());
+
+    private final CacheManager cacheManager;
+
+    public BookCache(CacheManager cacheManager) {
+        this.cacheManager = cacheManager;
+    }
+
+    public BookResponseDTO get(Long bookId) {
+        Cache cache = cacheManager.getCache(BOOKS);
+        return cache == null ? null : cache.get(bookId, BookResponseDTO.class);
+    }
+
+    /**
+     * Returns the cached books among the given ids, keyed by id; ids that are not cached are simply absent.
+     */
+    public Map<Long, BookResponseDTO> getAll(Collection<Long> bookIds) {
+        Map<Long, BookResponseDTO> cached = new HashMap<>();
+        Cache cache = cacheManager.getCache(BOOKS);
+        if (cache != null) {
+            for (Long id : bookIds) {
+                BookResponseDTO book = cache.get(id, BookResponseDTO.class);
+                if (book != null) {
+                    cached.put(id, book);
+                }
+            }
+        }
+        return cached;
+    }
+
+    /**
+     * Caches the book unless the cached entry is newer.
+     */
+    public void put(BookResponseDTO book) {
+        putAll(List.of(book));
+    }
+
+    public void putAll(Collection<BookResponseDTO> books) {
+        Cache cache = cacheManager.getCache(BOOKS);
+        if (cache == null) {
+            return;
+        }
+        ConcurrentMap<Object, Object> entries = entries(cache);
+        for (BookResponseDTO book : books) {
+            if (entries == null) {
+                cache.put(book.id(), book);
+            } else {
+                entries.merge(book.id(), book, (cached, candidate) -> isOlder(book, cached) ? cached : candidate);
+            }
+        }
+    }
+
+    /**
+     * Caches the books as written once the surrounding transaction commits, replacing the entries they supersede.
+     */
+    public void putAfterCommit(Collection<BookResponseDTO> books) {
+        if (books.isEmpty()) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            log.info("Refreshing {} cached books", books.size());
+            putAll(books);
+        });
+    }
+
+    /**
+     * Whether the candidate was read before the cached book, i.e. carries an older book or author version.
+     */
+    static boolean isOlder(BookResponseDTO candidate, Object cached) {
+        if (!(cached instanceof BookResponseDTO current)) {
+            return false;
+        }
+        return VERSION_ORDER.compare(candidate.version(), current.version()) < 0
+                || VERSION_ORDER.compare(authorVersion(candidate), authorVersion(current)) < 0;
+    }
+
+    private static Long authorVersion(BookResponseDTO book) {
+        return book.author() == null ? null : book.author().version();
+    }
+
+    /**
+     * The store behind the cache, for an atomic compare-and-put; null if the cache implementation is not map based.
+     */
+    @SuppressWarnings("unchecked")
+    private static ConcurrentMap<Object, Object> entries(Cache cache) {
+        Object nativeCache = cache.getNativeCache();
+        if (nativeCache instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return (ConcurrentMap<Object, Object>) caffeine.asMap();
+        }
+        if (nativeCache instanceof ConcurrentMap<?, ?> map) {
+            return (ConcurrentMap<Object, Object>) map;
+        }
+        return null;
+    }
+}
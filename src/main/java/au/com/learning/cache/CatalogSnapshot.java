@@ -0,0 +1,119 @@
+package au.com.learning.cache;
+
+import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.BookRow;
+import au.com.learning.transaction.AfterCommit;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * The full /getAllBooks response, serialized once and kept as bytes (and optionally gzipped bytes) so a read is a
+ * plain copy to the socket. Each snapshot is stamped with the {@link CatalogVersion} it was built at and served
+ * with that version as its ETag. A write schedules a rebuild in the background; until it lands, reads keep getting
+ * the previous snapshot rather than waiting on a full rebuild, so the catalog may briefly trail the last commit.
+ */
+@Component
+@Slf4j
+public class CatalogSnapshot implements SmartInitializingSingleton {
+
+    private final BookRepository bookRepository;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+    private final TaskExecutor taskExecutor;
+    private final boolean gzip;
+
+    private final AtomicBoolean rebuildQueued = new AtomicBoolean();
+    private volatile Snapshot snapshot;
+
+    public CatalogSnapshot(BookRepository bookRepository, ObjectMapper objectMapper, CatalogVersion catalogVersion,
+                           TaskExecutor taskExecutor, @Value("${app.catalog-snapshot.gzip:true}") boolean gzip) {
+        this.bookRepository = bookRepository;
+        this.objectMapper = objectMapper;
+        this.catalogVersion = catalogVersion;
+        this.taskExecutor = taskExecutor;
+        this.gzip = gzip;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Snapshot built = get();
+        log.info("Catalog snapshot built: {} bytes, {} gzipped", built.json().length,
+                built.gzip() == null ? "not" : built.gzip().length);
+    }
+
+    /**
+     * Returns the latest snapshot. An outdated one is still returned, with a background rebuild queued in case the
+     * write that outdated it has not queued one; only the very first call builds in line.
+     */
+    public Snapshot get() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return rebuild();
+        }
+        if (!current.eTag().equals(catalogVersion.current())) {
+            queueRebuild();
+        }
+        return current;
+    }
+
+    /**
+     * Rebuilds the snapshot on the task executor once the surrounding transaction commits.
+     */
+    public void rebuildAfterCommit() {
+        AfterCommit.run(this::queueRebuild);
+    }
+
+    /**
+     * Requests arriving while a rebuild is already queued are folded into it.
+     */
+    private void queueRebuild() {
+        if (rebuildQueued.compareAndSet(false, true)) {
+            taskExecutor.execute(() -> {
+                rebuildQueued.set(false);
+                rebuild();
+            });
+        }
+    }
+
+    private synchronized Snapshot rebuild() {
+        // read the version before the books: a write committing mid-build leaves this snapshot outdated, never wrong
+        String version = catalogVersion.current();
+        Snapshot current = snapshot;
+        if (current != null && current.eTag().equals(version)) {
+            return current;
+        }
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(bookRepository.findRows(null).stream()
+                    .map(BookRow::toBookResponseDTO)
+                    .toList());
+            current = new Snapshot(version, json, gzip ? gzip(json) : null);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        snapshot = current;
+        return current;
+    }
+
+    private static byte[] gzip(byte[] json) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(json);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Serialized catalog. {@code gzip} is null when pre-compression is disabled.
+     */
+    public record Snapshot(String eTag, byte[] json, byte[] gzip) {}
+}
@@ -0,0 +1,26 @@
+package au.com.learning.cache;
+
+import au.com.learning.transaction.AfterCommit;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Catalog-wide change counter used as the ETag of list responses. Every committed write bumps it, so an unchanged
+ * tag means no book or author has changed since the client's copy was produced. The boot time is part of the tag
+ * so a restart, which reloads the database, never matches a tag handed out by an earlier process.
+ */
+@Component
+public class CatalogVersion {
+
+    private final long epoch = System.currentTimeMillis();
+    private final AtomicLong changes = new AtomicLong();
+
+    public String current() {
+        return "catalog-" + epoch + "-" + changes.get();
+    }
+
+    public void bumpAfterCommit() {
+        AfterCommit.run(changes::incrementAndGet);
+    }
+}
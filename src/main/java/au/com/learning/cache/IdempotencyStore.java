@@ -0,0 +1,82 @@
+package au.com.learning.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+/**
+ * Responses of non-idempotent requests kept by their client-supplied {@code Idempotency-Key}, so a retried request is
+ * answered from memory without repeating the work. The first request with a key runs; requests arriving with the
+ * same key while it is in flight wait for its outcome instead of racing it. Only successful responses are kept, a
+ * failed request can be retried with the same key. Each key is tied to a fingerprint of its request and reusing it
+ * for a different request is refused.
+ */
+@Component
+@Slf4j
+public class IdempotencyStore {
+
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final Cache<String, Entry> entries;
+
+    public IdempotencyStore(@Value("${app.idempotency.max-keys:10000}") long maxKeys,
+                            @Value("${app.idempotency.ttl:PT24H}") Duration ttl) {
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Runs the action once per key and returns its result, or the result of the earlier run with the same key.
+     *
+     * @throws IllegalArgumentException if the key is too long or was used for a request with another fingerprint
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Object fingerprint, Supplier<T> action) {
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key cannot be longer than " + MAX_KEY_LENGTH + " characters");
+        }
+        Entry entry = new Entry(fingerprint, new CompletableFuture<>());
+        Entry existing = entries.asMap().putIfAbsent(key, entry);
+        if (existing != null) {
+            if (!Objects.equals(existing.fingerprint(), fingerprint)) {
+                throw new IllegalArgumentException("Idempotency-Key was already used for a different request");
+            }
+            log.info("Replaying response for idempotency key {}", key);
+            return (T) await(existing.response());
+        }
+
+        try {
+            T response = action.get();
+            entry.response().complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            entries.asMap().remove(key, entry);
+            entry.response().completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Entry(Object fingerprint, CompletableFuture<Object> response) {
+    }
+}
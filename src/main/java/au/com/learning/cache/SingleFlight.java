@@ -0,0 +1,19 @@
+package au.com.learning.cache;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a read whose concurrent identical calls should share one execution, see {@link SingleFlightAspect}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SingleFlight {
+
+    /**
+     * Whether string arguments that differ only in case are the same call, for reads that match case-insensitively.
+     */
+    boolean ignoreCase() default false;
+}
@@ -0,0 +1,81 @@
+package au.com.learning.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces concurrent calls to a {@link SingleFlight} method that carry the same arguments: the first call runs and
+ * the others arriving while it is in flight wait for it and get its result, or its exception. Nothing is kept once
+ * the call returns, so a later call always runs again. The aspect is ordered just after Spring's
+ * {@code ExposeInvocationInterceptor} (which must run first for the annotation to be bound) and ahead of the
+ * transaction advice, so waiting callers do not hold a connection. Shared calls are counted in
+ * {@code library.single.flight.coalesced}.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class SingleFlightAspect {
+
+    private final Map<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public SingleFlightAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(singleFlight)")
+    public Object coalesce(ProceedingJoinPoint joinPoint, SingleFlight singleFlight) throws Throwable {
+        Key key = new Key(joinPoint.getSignature().toLongString(), normalize(joinPoint.getArgs(), singleFlight.ignoreCase()));
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, call);
+        if (running != null) {
+            meterRegistry.counter("library.single.flight.coalesced", "method", joinPoint.getSignature().toShortString()).increment();
+            return await(running);
+        }
+
+        try {
+            Object result = joinPoint.proceed();
+            call.complete(result);
+            return result;
+        } catch (Throwable e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    private static List<Object> normalize(Object[] args, boolean ignoreCase) {
+        List<Object> normalized = new ArrayList<>(args.length);
+        for (Object arg : args) {
+            normalized.add(ignoreCase && arg instanceof String value ? value.toLowerCase(Locale.ROOT) : arg);
+        }
+        return normalized;
+    }
+
+    private static Object await(CompletableFuture<Object> running) throws Throwable {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            throw e.getCause();
+        }
+    }
+
+    private record Key(String method, List<Object> args) {
+    }
+}
@@ -0,0 +1,67 @@
+package au.com.learning.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.List;
+
+/**
+ * Ends the class-data-sharing training run of the cds build profile. Once the application is ready it sends itself
+ * one request per {@code app.cds.training-paths} entry, so the classes that serve a first request (MVC dispatch,
+ * Jackson, Hibernate queries, actuator) are loaded too, and then exits so the JVM can write its archive. The flag is
+ * read at runtime rather than through a condition because AOT processing would otherwise settle it at build time.
+ */
+@Component
+@Slf4j
+public class CdsTrainingRun implements ApplicationListener<ApplicationReadyEvent> {
+
+    private final boolean training;
+    private final List<String> paths;
+    private final String contextPath;
+
+    public CdsTrainingRun(@Value("${app.cds.training:false}") boolean training,
+                          @Value("${app.cds.training-paths:/actuator/health,/getBook/1,/getAllBooks,/authors/search?name=liam}") List<String> paths,
+                          @Value("${server.servlet.context-path:}") String contextPath) {
+        this.training = training;
+        this.paths = paths;
+        this.contextPath = contextPath;
+    }
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        if (!training) {
+            return;
+        }
+        if (event.getApplicationContext() instanceof WebServerApplicationContext web) {
+            serveTrainingRequests(web.getWebServer().getPort());
+        }
+        log.info("CDS training run finished, exiting");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+
+    private void serveTrainingRequests(int port) {
+        HttpClient client = HttpClient.newHttpClient();
+        for (String path : paths) {
+            URI uri = URI.create("http://localhost:" + port + contextPath + path);
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(uri).build(), HttpResponse.BodyHandlers.discarding());
+                log.info("CDS training request {} returned {}", path, response.statusCode());
+            } catch (IOException e) {
+                log.warn("CDS training request {} failed", path, e);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package au.com.learning.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.zip.CRC32;
+
+/**
+ * Builds and opens on-disk H2 (MVStore) copies of the seeded database. The seed scripts are loaded once with
+ * {@code RUNSCRIPT}, inside the database engine, and the compacted file is kept under a name derived from the
+ * scripts' content, so editing schema.sql or data.sql produces a fresh snapshot instead of reusing a stale one.
+ */
+@Slf4j
+public final class H2Snapshot {
+
+    static final String FILE_SUFFIX = ".mv.db";
+
+    private H2Snapshot() {
+    }
+
+    /**
+     * Returns the JDBC url of a database holding the seed data, building the snapshot first if needed. With
+     * {@code copy} the snapshot is copied to a working file so every start sees the pristine seed, as the in-memory
+     * database does; without it the snapshot itself is opened and keeps writes across restarts.
+     */
+    public static String prepare(Path directory, String name, boolean copy, String... classpathScripts) {
+        try {
+            Files.createDirectories(directory);
+            Path snapshot = directory.resolve(name + "-" + checksum(classpathScripts));
+            if (Files.notExists(file(snapshot))) {
+                long start = System.nanoTime();
+                Path building = directory.resolve(name + "-building-" + ProcessHandle.current().pid());
+                Files.deleteIfExists(file(building));
+                String[] locations = new String[classpathScripts.length];
+                for (int i = 0; i < classpathScripts.length; i++) {
+                    locations[i] = "classpath:/" + classpathScripts[i];
+                }
+                build(building, locations);
+                Files.move(file(building), file(snapshot), StandardCopyOption.ATOMIC_MOVE);
+                log.info("Built H2 snapshot {} in {} ms", file(snapshot), (System.nanoTime() - start) / 1_000_000);
+            }
+            if (!copy) {
+                return url(snapshot);
+            }
+            Path working = directory.resolve(name + "-run");
+            Files.copy(file(snapshot), file(working), StandardCopyOption.REPLACE_EXISTING);
+            log.info("Opened a copy of H2 snapshot {}", file(snapshot));
+            return url(working);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not prepare the H2 snapshot in " + directory, e);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not build the H2 snapshot in " + directory, e);
+        }
+    }
+
+    /**
+     * Runs the scripts, given as H2 file names ({@code classpath:/...} or a path), into a new database at
+     * {@code database} and compacts it.
+     */
+    public static void build(Path database, String... scripts) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url(database), "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String script : scripts) {
+                statement.execute("RUNSCRIPT FROM '" + script + "' CHARSET 'UTF-8'");
+            }
+            statement.execute("SHUTDOWN COMPACT");
+        }
+    }
+
+    public static String url(Path database) {
+        return "jdbc:h2:file:" + database.toAbsolutePath();
+    }
+
+    static Path file(Path database) {
+        return database.resolveSibling(database.getFileName() + FILE_SUFFIX);
+    }
+
+    private static String checksum(String... classpathScripts) throws IOException {
+        CRC32 crc = new CRC32();
+        for (String script : classpathScripts) {
+            try (InputStream in = new ClassPathResource(script).getInputStream()) {
+                crc.update(in.readAllBytes());
+            }
+        }
+        return Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,54 @@
+package au.com.learning.config;
+
+import au.com.learning.metrics.EntityLoadListener;
+import au.com.learning.metrics.RequestMetricsInterceptor;
+import au.com.learning.metrics.StatementBudgetProperties;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Application metrics on top of what actuator binds by itself. Service methods are timed through {@code @Timed},
+ * repository methods by Spring Data's own {@code spring.data.repository.invocations}, and global Hibernate
+ * statistics by the hibernate-micrometer binder. The request interceptor adds the per-endpoint Hibernate view and
+ * enforces the SQL statement budget.
+ */
+@Configuration
+@EnableConfigurationProperties(StatementBudgetProperties.class)
+public class MetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetProperties statementBudget;
+
+    public MetricsConfig(MeterRegistry meterRegistry, StatementBudgetProperties statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Bean
+    public TimedAspect timedAspect() {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public SmartInitializingSingleton entityLoadCounter(EntityManagerFactory entityManagerFactory) {
+        return () -> entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .getService(EventListenerRegistry.class)
+                .appendListeners(EventType.POST_LOAD, new EntityLoadListener());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestMetricsInterceptor(meterRegistry, statementBudget));
+    }
+}
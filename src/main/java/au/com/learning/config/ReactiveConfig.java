@@ -0,0 +1,24 @@
+package au.com.learning.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Backs the reactive read endpoints. JPA stays blocking, so every repository call is moved onto a bounded scheduler
+ * sized to the connection pool; request threads are released while a query runs and a burst of requests queues on
+ * the scheduler instead of pinning servlet threads.
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler jpaScheduler(@Value("${app.reactive.jpa-threads:10}") int threads,
+                                  @Value("${app.reactive.jpa-queue-size:10000}") int queueSize) {
+        return Schedulers.newBoundedElastic(threads, queueSize, "jpa");
+    }
+}
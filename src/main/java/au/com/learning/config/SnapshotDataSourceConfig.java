@@ -0,0 +1,33 @@
+package au.com.learning.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.nio.file.Path;
+
+/**
+ * Starts from an on-disk H2 snapshot of schema.sql and data.sql instead of replaying both scripts into the
+ * in-memory database on every boot. The first start builds the snapshot; later starts only copy (or open) a file.
+ * The profile switches spring.sql.init and Hibernate schema generation off, see application-snapshot.properties.
+ */
+@Configuration
+@Profile("snapshot")
+public class SnapshotDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties,
+                                       @Value("${app.snapshot.directory:./data}") String directory,
+                                       @Value("${app.snapshot.copy:true}") boolean copy) {
+        String url = H2Snapshot.prepare(Path.of(directory), "librarydb", copy, "schema.sql", "data.sql");
+        return properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+    }
+}
@@ -1,10 +1,12 @@
 package au.com.learning.controller;
 
+import au.com.learning.cache.CatalogVersion;
 import au.com.learning.dto.AuthorResponseDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.service.AuthorServiceIF;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -15,9 +17,18 @@ public class AuthorController {
     @Autowired
     private AuthorServiceIF authorService;
 
+    @Autowired
+    private CatalogVersion catalogVersion;
+
     @GetMapping("/search")
-    public List<AuthorResponseDTO> searchAuthors(@RequestParam String name) {
-        return authorService.getAuthorsByName(name);
+    public List<AuthorResponseDTO> searchAuthors(@RequestParam String name, WebRequest webRequest) {
+        // read the version first: a write committing during the lookup leaves the ETag behind the result, never ahead
+        String version = catalogVersion.current();
+        List<AuthorResponseDTO> authors = authorService.getAuthorsByName(name);
+        if (webRequest.checkNotModified(version)) {
+            return null;
+        }
+        return authors;
     }
 
     @PutMapping("/update/{id}")
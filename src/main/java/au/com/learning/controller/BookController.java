@@ -1,41 +1,198 @@
 package au.com.learning.controller;
 
 
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.IdempotencyStore;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookBatchResponseDTO;
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookPageResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.dto.BookWriteStatusDTO;
+import au.com.learning.dto.FacetCountsDTO;
+import au.com.learning.entity.Author;
 import au.com.learning.entity.Book;
 import au.com.learning.service.BookServiceIF;
+import au.com.learning.service.BookWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
 
 @RestController
 @RequestMapping
 public class BookController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String EXPORT_TIMEOUT = BookController.class.getName() + ".exportTimeout";
+
     @Autowired
     private BookServiceIF bookService;
 
+    @Autowired
+    private BookWriteBehind bookWriteBehind;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.catalog-export.timeout:PT10M}")
+    private Duration exportTimeout;
+
     @GetMapping("/getBook/{id}")
-    public BookResponseDTO getBookById(@PathVariable Long id) {
-        return bookService.getBookById(id);
+    public BookResponseDTO getBookById(@PathVariable Long id, WebRequest webRequest) {
+        BookResponseDTO book = bookService.getBookById(id);
+        if (webRequest.checkNotModified(eTag(book))) {
+            return null;
+        }
+        return book;
     }
 
     @GetMapping("/getAllBooks")
-    public List<BookResponseDTO> getAllBooks() {
-        return  bookService.getAllBooks();
+    public ResponseEntity<byte[]> getAllBooks(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                                              WebRequest webRequest) {
+        CatalogSnapshot.Snapshot snapshot = bookService.getAllBooksSnapshot();
+        if (webRequest.checkNotModified(snapshot.eTag())) {
+            return null;
+        }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.gzip() != null && acceptsGzip(acceptEncoding)) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
+    }
+
+    @GetMapping(value = "/getAllBooks", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllBooks(WebRequest webRequest) {
+        // the export may outlive the default async request timeout; raise it for this request only
+        WebAsyncUtils.getAsyncManager(webRequest).registerCallableInterceptor(EXPORT_TIMEOUT, new CallableProcessingInterceptor() {
+            @Override
+            public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+                if (request instanceof AsyncWebRequest asyncWebRequest) {
+                    asyncWebRequest.setTimeout(exportTimeout.toMillis());
+                }
+            }
+        });
+        StreamingResponseBody body = outputStream -> {
+            try {
+                bookService.streamAllBooks(book -> writeLine(outputStream, book));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/getBooks")
+    public BookBatchResponseDTO getBooks(@RequestParam List<Long> ids) {
+        return bookService.getBooksByIds(ids);
+    }
+
+    @GetMapping("/getBooksPage")
+    public BookPageResponseDTO getBooksPage(@RequestParam(required = false) Long after, @RequestParam(required = false) Integer limit) {
+        return bookService.getBooksPage(after, limit);
     }
 
     @GetMapping("/filterBooks")
-    public Map<String, List<BookResponseDTO>> filterBooks(@RequestParam(required = true) String author, @RequestParam(required = true) String genre) {
-        return bookService.getFilteredBooks(author,genre);
+    public Map<String, List<BookResponseDTO>> filterBooks(@RequestParam(required = true) String author, @RequestParam(required = true) String genre,
+                                                          @RequestParam(required = false) Integer limitPerGenre) {
+        return bookService.getFilteredBooks(author, genre, limitPerGenre);
+    }
+
+    @GetMapping("/facets")
+    public FacetCountsDTO getFacets() {
+        return bookService.getFacets();
     }
 
+    /**
+     * With an {@code Idempotency-Key} header, a retry of an earlier successful request gets the stored response
+     * without touching the database, and a retry sent while the original is still running waits for it.
+     */
     @PostMapping("/addBook")
-    public AuthorResponseDTO addBook(@RequestBody Book book) {
-        return bookService.saveBook(book);
+    public AuthorResponseDTO addBook(@RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                                     @RequestBody Book book) {
+        if (StringUtils.isBlank(idempotencyKey)) {
+            return bookService.saveBook(book);
+        }
+        return idempotencyStore.execute(idempotencyKey, fingerprint(book), () -> bookService.saveBook(book));
+    }
+
+    @PostMapping("/addBookAsync")
+    public ResponseEntity<BookWriteStatusDTO> addBookAsync(@RequestBody Book book) {
+        return ResponseEntity.accepted().body(bookWriteBehind.submit(book));
+    }
+
+    @GetMapping("/addBookStatus/{trackingId}")
+    public BookWriteStatusDTO getAddBookStatus(@PathVariable String trackingId) {
+        return bookWriteBehind.getStatus(trackingId);
+    }
+
+    @PostMapping("/addBooks")
+    public List<BookIngestResultDTO> addBooks(@RequestBody List<Book> books) {
+        return bookService.saveBooks(books);
     }
-}
 
+    /**
+     * The request fields {@code saveBook} reads, taken before the save mutates the book.
+     */
+    static List<Object> fingerprint(Book book) {
+        Author author = book.getAuthor();
+        return author == null
+                ? Arrays.asList(book.getTitle(), book.getGenere())
+                : Arrays.asList(book.getTitle(), book.getGenere(), author.getEmail(), author.getFirstName(),
+                                author.getLastName(), author.getBio(), author.getGenere());
+    }
+
+    /**
+     * Strong ETag of a single book, from the book and author versions the (cached) response carries.
+     */
+    static String eTag(BookResponseDTO book) {
+        Long authorVersion = book.author() == null ? null : book.author().version();
+        return "book-" + book.id() + "-" + book.version() + "-" + authorVersion;
+    }
+
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    private void writeLine(OutputStream outputStream, BookResponseDTO book) {
+        try {
+            outputStream.write(objectMapper.writeValueAsBytes(book));
+            outputStream.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package au.com.learning.controller;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.service.AuthorServiceIF;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/reactive/authors")
+public class ReactiveAuthorController {
+
+    private final AuthorServiceIF authorService;
+    private final Scheduler jpaScheduler;
+
+    public ReactiveAuthorController(AuthorServiceIF authorService, Scheduler jpaScheduler) {
+        this.authorService = authorService;
+        this.jpaScheduler = jpaScheduler;
+    }
+
+    @GetMapping("/search")
+    public Flux<AuthorResponseDTO> searchAuthors(@RequestParam String name) {
+        return Mono.fromCallable(() -> authorService.getAuthorsByName(name))
+                .flatMapIterable(authors -> authors)
+                .subscribeOn(jpaScheduler);
+    }
+}
@@ -0,0 +1,44 @@
+package au.com.learning.controller;
+
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.service.BookServiceIF;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("/reactive")
+public class ReactiveBookController {
+
+    private final BookServiceIF bookService;
+    private final Scheduler jpaScheduler;
+
+    public ReactiveBookController(BookServiceIF bookService, Scheduler jpaScheduler) {
+        this.bookService = bookService;
+        this.jpaScheduler = jpaScheduler;
+    }
+
+    @GetMapping("/getBook/{id}")
+    public Mono<BookResponseDTO> getBookById(@PathVariable Long id) {
+        return Mono.fromCallable(() -> bookService.getBookById(id)).subscribeOn(jpaScheduler);
+    }
+
+    @GetMapping("/getAllBooks")
+    public Flux<BookResponseDTO> getAllBooks() {
+        return Mono.fromCallable(bookService::getAllBooks)
+                .flatMapIterable(books -> books)
+                .subscribeOn(jpaScheduler);
+    }
+
+    @GetMapping("/filterBooks")
+    public Mono<Map<String, List<BookResponseDTO>>> filterBooks(@RequestParam(required = true) String author, @RequestParam(required = true) String genre,
+                                                                @RequestParam(required = false) Integer limitPerGenre) {
+        return Mono.fromCallable(() -> bookService.getFilteredBooks(author, genre, limitPerGenre)).subscribeOn(jpaScheduler);
+    }
+}
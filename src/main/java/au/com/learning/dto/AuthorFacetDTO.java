@@ -0,0 +1,5 @@
+package au.com.learning.dto;
+
+import java.util.Map;
+
+public record AuthorFacetDTO (Long id, String firstName, String lastName, long books, Map<String, Long> genres) {}
@@ -1,6 +1,8 @@
 package au.com.learning.dto;
 
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import java.util.List;
 
 public record AuthorResponseDTO (
@@ -10,6 +12,14 @@ public record AuthorResponseDTO (
         String email,
         String bio,
         String genere,
-        List<BookResponseDTO> books
-) {}
+        List<BookResponseDTO> books,
+        // send it back on update to fail fast if someone else changed the author
+        @JsonInclude(JsonInclude.Include.NON_NULL) Long version
+) {
+
+    public AuthorResponseDTO(Long id, String firstName, String lastName, String email, String bio, String genere,
+                             List<BookResponseDTO> books) {
+        this(id, firstName, lastName, email, bio, genere, books, null);
+    }
+}
 
@@ -0,0 +1,5 @@
+package au.com.learning.dto;
+
+import java.util.List;
+
+public record BookBatchResponseDTO (List<BookResponseDTO> books, List<Long> missingIds) {}
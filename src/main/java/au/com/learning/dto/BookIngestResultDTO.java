@@ -0,0 +1,18 @@
+package au.com.learning.dto;
+
+import au.com.learning.entity.Book;
+
+public record BookIngestResultDTO (int index, Status status, Long bookId, String title, String authorEmail, String message) {
+
+    public enum Status { CREATED, REJECTED }
+
+    public static BookIngestResultDTO created(int index, Book book) {
+        return new BookIngestResultDTO(index, Status.CREATED, book.getId(), book.getTitle(), book.getAuthor().getEmail(), null);
+    }
+
+    public static BookIngestResultDTO rejected(int index, Book book, String message) {
+        String title = book == null ? null : book.getTitle();
+        String authorEmail = book == null || book.getAuthor() == null ? null : book.getAuthor().getEmail();
+        return new BookIngestResultDTO(index, Status.REJECTED, null, title, authorEmail, message);
+    }
+}
@@ -0,0 +1,5 @@
+package au.com.learning.dto;
+
+import java.util.List;
+
+public record BookPageResponseDTO (List<BookResponseDTO> books, Long nextCursor) {}
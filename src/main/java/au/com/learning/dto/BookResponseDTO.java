@@ -1,4 +1,12 @@
 package au.com.learning.dto;
 
-public record BookResponseDTO (Long id, String title, String genere,AuthorResponseDTO author) {}
+import com.fasterxml.jackson.annotation.JsonInclude;
 
+public record BookResponseDTO (Long id, String title, String genere,AuthorResponseDTO author,
+                               // lets the book cache refuse a row read before a newer one was cached
+                               @JsonInclude(JsonInclude.Include.NON_NULL) Long version) {
+
+    public BookResponseDTO(Long id, String title, String genere, AuthorResponseDTO author) {
+        this(id, title, genere, author, null);
+    }
+}
@@ -0,0 +1,14 @@
+package au.com.learning.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+public record BookWriteStatusDTO(String trackingId, Status status,
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) Long bookId,
+                                 @JsonInclude(JsonInclude.Include.NON_NULL) String message) {
+
+    public enum Status { PENDING, CREATED, REJECTED, FAILED }
+
+    public static BookWriteStatusDTO pending(String trackingId) {
+        return new BookWriteStatusDTO(trackingId, Status.PENDING, null, null);
+    }
+}
@@ -0,0 +1,6 @@
+package au.com.learning.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public record FacetCountsDTO (Map<String, Long> genres, List<AuthorFacetDTO> authors) {}
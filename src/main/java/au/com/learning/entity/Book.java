@@ -2,20 +2,31 @@ package au.com.learning.entity;
 
 
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = Book.TITLE_AUTHOR_CONSTRAINT, columnNames = {"title", "author_id"}))
 @Getter
 @Setter
 @NoArgsConstructor
 public class Book {
+    public static final String TITLE_AUTHOR_CONSTRAINT = "uk_book_title_author";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "book_seq")
+    @SequenceGenerator(name = "book_seq", sequenceName = "book_seq", allocationSize = 50)
     private Long id;
+    @Version
+    private Long version;
     private String title;
     private String genere;
+    // lower(genere), generated by the database (see schema.sql) and indexed for genre filters
+    @Setter(AccessLevel.NONE)
+    @Column(insertable = false, updatable = false)
+    private String genreKey;
 
     @ManyToOne
     @JoinColumn(name = "author_id")
@@ -1,5 +1,8 @@
 package au.com.learning.errorhandler;
 
+import au.com.learning.service.WriteQueueFullException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MissingServletRequestParameterException;
@@ -15,6 +18,18 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errorResponse, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorResponse> handleConflict(OptimisticLockingFailureException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(409, "The resource was modified concurrently, reload it and retry");
+        return new ResponseEntity<>(errorResponse, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(WriteQueueFullException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(WriteQueueFullException ex) {
+        ErrorResponse errorResponse = new ErrorResponse(429, ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").body(errorResponse);
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> unHandledExceptions(Exception ex) {
         ErrorResponse errorResponse = new ErrorResponse(500, "Internal Server Error");
@@ -0,0 +1,16 @@
+package au.com.learning.metrics;
+
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts every entity Hibernate materializes, whether by find, query or lazy initialization, into the current
+ * {@link RequestStatistics}.
+ */
+public class EntityLoadListener implements PostLoadEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics.entityLoaded();
+    }
+}
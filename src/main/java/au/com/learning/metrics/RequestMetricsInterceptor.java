@@ -0,0 +1,99 @@
+package au.com.learning.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes the {@link RequestStatistics} of each request tagged with its endpoint, which is what the global
+ * Hibernate statistics cannot do, and warns when a request goes over its SQL statement budget or repeats the same
+ * statement often enough to look like an N+1. Requests that go async (the NDJSON export) are dropped: their
+ * queries run on another thread.
+ */
+@Slf4j
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+    private final StatementBudgetProperties statementBudget;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry, StatementBudgetProperties statementBudget) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.begin();
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestStatistics.end();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatistics statistics = RequestStatistics.end();
+        if (statistics == null) {
+            return;
+        }
+        request.setAttribute(RequestStatistics.ATTRIBUTE, statistics);
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? "UNKNOWN" : pattern.toString();
+        Tags tags = Tags.of("uri", uri, "method", request.getMethod());
+
+        summary("library.request.statements", "JDBC statements executed per request", tags)
+                .record(statistics.statements());
+        summary("library.request.entity.loads", "Entities loaded per request", tags)
+                .record(statistics.entityLoads());
+        Timer.builder("library.request.statements.time")
+                .description("Total JDBC statement time per request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.statementNanos(), TimeUnit.NANOSECONDS);
+        Timer.builder("library.request.statements.slowest")
+                .description("Slowest JDBC statement of each request")
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(statistics.slowestStatementNanos(), TimeUnit.NANOSECONDS);
+        meterRegistry.counter("library.request.cache.gets", tags.and("result", "hit")).increment(statistics.cacheHits());
+        meterRegistry.counter("library.request.cache.gets", tags.and("result", "miss")).increment(statistics.cacheMisses());
+
+        checkStatementBudget(request.getMethod(), uri, tags, statistics);
+    }
+
+    private void checkStatementBudget(String method, String uri, Tags tags, RequestStatistics statistics) {
+        int budget = statementBudget.budgetFor(uri);
+        if (statistics.preparedStatements() > budget) {
+            meterRegistry.counter("library.request.statements.over.budget", tags).increment();
+            log.warn("{} {} prepared {} SQL statements, over its budget of {}", method, uri,
+                    statistics.preparedStatements(), budget);
+        }
+        Map<String, Integer> repeated = statistics.repeatedStatements(statementBudget.getRepeatThreshold());
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("library.request.statements.repeated", tags).increment();
+            repeated.forEach((sql, count) ->
+                    log.warn("{} {} prepared the same statement {} times, possible N+1: {}", method, uri, count, sql));
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, Tags tags) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tags(tags)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,127 @@
+package au.com.learning.metrics;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hibernate work done on behalf of one HTTP request. Filled in by the Hibernate listeners on the request thread
+ * between {@link #begin()} and {@link #end()}; work done outside a request (startup, background rebuilds) and on
+ * other threads is not counted.
+ */
+public final class RequestStatistics {
+
+    /**
+     * Request attribute under which the completed statistics are left for tests to inspect.
+     */
+    public static final String ATTRIBUTE = RequestStatistics.class.getName();
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, Integer> preparedStatements = new HashMap<>();
+    private int prepared;
+
+    private long statements;
+    private long statementNanos;
+    private long slowestStatementNanos;
+    private long entityLoads;
+    private long cacheHits;
+    private long cacheMisses;
+
+    private RequestStatistics() {
+    }
+
+    public static void begin() {
+        CURRENT.set(new RequestStatistics());
+    }
+
+    /**
+     * Stops collecting on this thread and returns what was collected, or null if no request was open.
+     */
+    public static RequestStatistics end() {
+        RequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    static void statementPrepared(String sql) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.prepared++;
+            statistics.preparedStatements.merge(sql, 1, Integer::sum);
+        }
+    }
+
+    static void statementExecuted(long nanos) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+            statistics.statementNanos += nanos;
+            statistics.slowestStatementNanos = Math.max(statistics.slowestStatementNanos, nanos);
+        }
+    }
+
+    static void entityLoaded() {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void cacheGet(boolean hit) {
+        RequestStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            if (hit) {
+                statistics.cacheHits++;
+            } else {
+                statistics.cacheMisses++;
+            }
+        }
+    }
+
+    /**
+     * SQL statements Hibernate prepared for the request, as seen by the statement inspector. This is the number
+     * the statement budget is checked against.
+     */
+    public int preparedStatements() {
+        return prepared;
+    }
+
+    /**
+     * Statements prepared at least {@code threshold} times, with their counts. The same SELECT issued once per
+     * parent row is the signature of an N+1 lazy load.
+     */
+    public Map<String, Integer> repeatedStatements(int threshold) {
+        Map<String, Integer> repeated = new TreeMap<>();
+        preparedStatements.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    public long statements() {
+        return statements;
+    }
+
+    public long statementNanos() {
+        return statementNanos;
+    }
+
+    public long slowestStatementNanos() {
+        return slowestStatementNanos;
+    }
+
+    public long entityLoads() {
+        return entityLoads;
+    }
+
+    public long cacheHits() {
+        return cacheHits;
+    }
+
+    public long cacheMisses() {
+        return cacheMisses;
+    }
+}
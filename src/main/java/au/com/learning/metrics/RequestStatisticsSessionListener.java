@@ -0,0 +1,27 @@
+package au.com.learning.metrics;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Registered through {@code hibernate.session.events.auto}, so Hibernate creates one per session. Times each JDBC
+ * statement and records second-level cache lookups into the current {@link RequestStatistics}.
+ */
+public class RequestStatisticsSessionListener implements SessionEventListener {
+
+    private long statementStart;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        statementStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        RequestStatistics.statementExecuted(System.nanoTime() - statementStart);
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestStatistics.cacheGet(hit);
+    }
+}
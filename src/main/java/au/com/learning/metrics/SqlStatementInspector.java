@@ -0,0 +1,16 @@
+package au.com.learning.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Registered through {@code hibernate.session_factory.statement_inspector}. Records every SQL statement Hibernate
+ * prepares into the current {@link RequestStatistics} and passes it through unchanged.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        RequestStatistics.statementPrepared(sql);
+        return sql;
+    }
+}
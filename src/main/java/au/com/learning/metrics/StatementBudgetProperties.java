@@ -0,0 +1,31 @@
+package au.com.learning.metrics;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL statement budget per request. {@code endpoints} overrides {@code perRequest} for individual uri patterns,
+ * e.g. {@code app.sql.statement-budget.endpoints[/authors/search]=1}.
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "app.sql.statement-budget")
+public class StatementBudgetProperties {
+
+    private int perRequest = 20;
+
+    /**
+     * A statement prepared this many times within one request is reported as a likely N+1.
+     */
+    private int repeatThreshold = 5;
+
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String uri) {
+        return endpoints.getOrDefault(uri, perRequest);
+    }
+}
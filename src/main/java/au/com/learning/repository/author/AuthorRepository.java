@@ -1,18 +1,18 @@
 package au.com.learning.repository.author;
 
 import au.com.learning.entity.Author;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
-import java.util.Optional;
 
-public interface AuthorRepository extends JpaRepository<Author, Long> {
+public interface AuthorRepository extends JpaRepository<Author, Long>, AuthorRepositoryCustom {
     boolean existsByEmail(String email);
 
-    Optional<Author> findByEmail(String email);
+    List<Author> findByEmailIn(Collection<String> emails);
 
-    List<Author> findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(String firstName, String lastName);
-
-    boolean existsByEmailAndIdNot(String email, Long id);
+    @EntityGraph(attributePaths = "books")
+    List<Author> findByIdInOrderByIdAsc(Collection<Long> ids);
 }
 
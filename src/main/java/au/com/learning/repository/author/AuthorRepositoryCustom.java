@@ -0,0 +1,14 @@
+package au.com.learning.repository.author;
+
+import au.com.learning.entity.Author;
+
+import java.util.Optional;
+
+public interface AuthorRepositoryCustom {
+
+    /**
+     * Resolves the author through the {@code email} natural id, so a repeat lookup is answered from the
+     * second-level natural-id and entity caches without a database round trip.
+     */
+    Optional<Author> findByEmail(String email);
+}
@@ -0,0 +1,27 @@
+package au.com.learning.repository.author;
+
+import au.com.learning.entity.Author;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+// fragments do not inherit the repository's transactional defaults, and unwrapping the shared EntityManager needs one
+@Transactional(readOnly = true)
+public class AuthorRepositoryCustomImpl implements AuthorRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Author> findByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Author.class)
+                .loadOptional(email);
+    }
+}
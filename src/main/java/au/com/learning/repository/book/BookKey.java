@@ -0,0 +1,6 @@
+package au.com.learning.repository.book;
+
+/**
+ * Natural key of a book: no author may have two books with the same title.
+ */
+public record BookKey(String title, String authorEmail) {}
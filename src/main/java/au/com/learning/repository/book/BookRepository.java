@@ -3,8 +3,18 @@ package au.com.learning.repository.book;
 import au.com.learning.entity.Book;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book> {
-    boolean existsByTitleAndAuthorEmail(String title, String authorEmail);
-}
+import java.util.Collection;
+import java.util.List;
+
+public interface BookRepository extends JpaRepository<Book, Long>, JpaSpecificationExecutor<Book>, BookRepositoryCustom {
+    @Query("select new au.com.learning.repository.book.BookKey(b.title, a.email) from Book b join b.author a " +
+            "where b.title in :titles and a.email in :emails")
+    List<BookKey> findExistingKeys(@Param("titles") Collection<String> titles, @Param("emails") Collection<String> emails);
 
+    @Query("select new au.com.learning.repository.book.FacetCount(a.id, a.firstName, a.lastName, b.genere, count(b)) " +
+            "from Book b join b.author a group by a.id, a.firstName, a.lastName, b.genere")
+    List<FacetCount> countByAuthorAndGenre();
+}
@@ -0,0 +1,34 @@
+package au.com.learning.repository.book;
+
+import au.com.learning.entity.Book;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface BookRepositoryCustom {
+
+    /**
+     * Selects the books matching the specification, or every book when it is null, as {@link BookRow}s ordered by id.
+     */
+    List<BookRow> findRows(Specification<Book> specification);
+
+    /**
+     * Selects at most {@code limit} of the books matching the specification as {@link BookRow}s ordered by id.
+     */
+    List<BookRow> findFirstRows(Specification<Book> specification, int limit);
+
+    /**
+     * Streams the matching {@link BookRow}s in the given order; must be consumed inside a transaction and closed.
+     */
+    Stream<BookRow> streamRows(Specification<Book> specification, Sort sort);
+
+    /**
+     * Streams the {@link BookRow}s of the given authors in the genre (matched ignoring case), keeping only the
+     * {@code limitPerGenre} lowest ids of each distinct {@code genere} spelling, ordered by genere and id. The cap is
+     * applied by the database, so rows past it are never read. Must be consumed inside a transaction and closed.
+     */
+    Stream<BookRow> streamRowsCappedPerGenre(Collection<Long> authorIds, String genre, int limitPerGenre);
+}
@@ -0,0 +1,95 @@
+package au.com.learning.repository.book;
+
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // row_number() ranks each genre's books by id inside the database, so only the kept rows leave it
+    private static final String CAPPED_PER_GENRE_SQL = """
+            select id, title, genere, author_id, first_name, last_name, email, bio, author_genere, version, author_version
+            from (select b.id, b.title, b.genere, a.id as author_id, a.first_name, a.last_name, a.email, a.bio,
+                         a.genere as author_genere, b.version, a.version as author_version,
+                         row_number() over (partition by b.genere order by b.id) as genre_rank
+                  from book b join author a on a.id = b.author_id
+                  where b.author_id in (:authorIds) and b.genre_key = :genreKey) ranked
+            where genre_rank <= :limitPerGenre
+            order by genere, id
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<BookRow> findRows(Specification<Book> specification) {
+        return createRowQuery(specification, Sort.by("id")).getResultList();
+    }
+
+    @Override
+    public List<BookRow> findFirstRows(Specification<Book> specification, int limit) {
+        return createRowQuery(specification, Sort.by("id")).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<BookRow> streamRows(Specification<Book> specification, Sort sort) {
+        return createRowQuery(specification, sort)
+                .setHint(HINT_FETCH_SIZE, STREAM_FETCH_SIZE)
+                .getResultStream();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Stream<BookRow> streamRowsCappedPerGenre(Collection<Long> authorIds, String genre, int limitPerGenre) {
+        Stream<Object[]> rows = entityManager.createNativeQuery(CAPPED_PER_GENRE_SQL)
+                .setParameter("authorIds", authorIds)
+                .setParameter("genreKey", genre.toLowerCase(Locale.ROOT))
+                .setParameter("limitPerGenre", limitPerGenre)
+                .getResultStream();
+        return rows.map(row -> new BookRow(toLong(row[0]), (String) row[1], (String) row[2], toLong(row[3]),
+                (String) row[4], (String) row[5], (String) row[6], (String) row[7], (String) row[8],
+                toLong(row[9]), toLong(row[10])));
+    }
+
+    private static Long toLong(Object value) {
+        return value == null ? null : ((Number) value).longValue();
+    }
+
+    private TypedQuery<BookRow> createRowQuery(Specification<Book> specification, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookRow> query = cb.createQuery(BookRow.class);
+        Root<Book> book = query.from(Book.class);
+        Join<Book, Author> author = book.join("author");
+
+        query.select(cb.construct(BookRow.class,
+                book.get("id"), book.get("title"), book.get("genere"),
+                author.get("id"), author.get("firstName"), author.get("lastName"),
+                author.get("email"), author.get("bio"), author.get("genere"),
+                book.get("version"), author.get("version")));
+
+        if (specification != null) {
+            Predicate predicate = specification.toPredicate(book, query, cb);
+            if (predicate != null) {
+                query.where(predicate);
+            }
+        }
+        query.orderBy(QueryUtils.toOrders(sort, book, cb));
+
+        return entityManager.createQuery(query);
+    }
+}
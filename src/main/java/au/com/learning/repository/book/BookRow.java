@@ -0,0 +1,19 @@
+package au.com.learning.repository.book;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
+
+/**
+ * Flat projection of a book joined to its author, selected straight from the result set so list queries skip
+ * entity hydration and the persistence context.
+ */
+public record BookRow(Long id, String title, String genere, Long authorId, String authorFirstName,
+                      String authorLastName, String authorEmail, String authorBio, String authorGenere,
+                      Long version, Long authorVersion) {
+
+    public BookResponseDTO toBookResponseDTO() {
+        AuthorResponseDTO author = new AuthorResponseDTO(authorId, authorFirstName, authorLastName, authorEmail,
+                authorBio, authorGenere, null, authorVersion);
+        return new BookResponseDTO(id, title, genere, author, version);
+    }
+}
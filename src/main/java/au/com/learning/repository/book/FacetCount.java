@@ -0,0 +1,6 @@
+package au.com.learning.repository.book;
+
+/**
+ * Number of books an author has in one genre (null for books without a genre).
+ */
+public record FacetCount(Long authorId, String authorFirstName, String authorLastName, String genere, Long books) {}
@@ -4,26 +4,34 @@ import au.com.learning.entity.Book;
 import io.micrometer.common.util.StringUtils;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
+import java.util.Locale;
+
 public class BookSpecifications {
 
-    public static Specification<Book> hasAuthor(String authorName) {
+    public static Specification<Book> hasAuthorIn(Collection<Long> authorIds) {
         return (root, query, cb) -> {
-            if (StringUtils.isBlank(authorName)) {
+            if (authorIds == null) {
                 return null;
             }
-            return cb.or(
-                cb.like(cb.lower(root.get("author").get("firstName")), "%" + authorName.toLowerCase() + "%"),
-                cb.like(cb.lower(root.get("author").get("lastName")), "%" + authorName.toLowerCase() + "%")
-            );
+            return root.get("author").get("id").in(authorIds);
         };
     }
 
+    public static Specification<Book> hasIdIn(Collection<Long> ids) {
+        return (root, query, cb) -> root.get("id").in(ids);
+    }
+
+    public static Specification<Book> hasIdGreaterThan(Long id) {
+        return (root, query, cb) -> cb.greaterThan(root.get("id"), id);
+    }
+
     public static Specification<Book> hasGenre(String genre) {
         return (root, query, cb) -> {
             if (StringUtils.isBlank(genre)) {
                 return null;
             }
-            return cb.equal(cb.lower(root.get("genere")), genre.toLowerCase());
+            return cb.equal(root.get("genreKey"), genre.toLowerCase(Locale.ROOT));
         };
     }
 }
\ No newline at end of file
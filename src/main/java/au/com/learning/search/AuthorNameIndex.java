@@ -0,0 +1,137 @@
+package au.com.learning.search;
+
+import au.com.learning.entity.Author;
+import au.com.learning.repository.author.AuthorRepository;
+import au.com.learning.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram index over author first and last names. A substring query is answered by intersecting the
+ * posting lists of its trigrams and then confirming each candidate with a plain {@code contains}, so the results
+ * match a case-insensitive {@code like '%name%'} without scanning the author table. Queries shorter than a trigram
+ * are checked against every name. The matching ids go into an {@code IN} list, so a query may match at most
+ * {@link #MAX_MATCHES} authors; broader ones are refused as soon as they pass the limit.
+ */
+@Component
+@Slf4j
+public class AuthorNameIndex implements SmartInitializingSingleton {
+
+    static final int GRAM_SIZE = 3;
+    static final int MAX_MATCHES = 1000;
+
+    private final AuthorRepository authorRepository;
+
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+    private final Map<Long, IndexedName> names = new ConcurrentHashMap<>();
+
+    public AuthorNameIndex(AuthorRepository authorRepository) {
+        this.authorRepository = authorRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        authorRepository.findAll().forEach(this::index);
+        log.info("Author name index built with {} authors and {} trigrams", names.size(), postings.size());
+    }
+
+    /**
+     * Returns the ids, in ascending order, of authors whose first or last name contains the given text ignoring case.
+     * As with {@code like '%name%'}, an empty name matches every author.
+     *
+     * @throws IllegalArgumentException if more than {@link #MAX_MATCHES} authors match
+     */
+    public List<Long> findAuthorIds(String name) {
+        if (name == null) {
+            return List.of();
+        }
+        String query = normalize(name);
+
+        Collection<Long> candidates = query.length() < GRAM_SIZE ? names.keySet() : candidatesFor(query);
+        List<Long> matches = new ArrayList<>();
+        for (Long id : candidates) {
+            IndexedName indexedName = names.get(id);
+            if (indexedName != null && indexedName.contains(query)) {
+                matches.add(id);
+                if (matches.size() > MAX_MATCHES) {
+                    throw new IllegalArgumentException("Name matches more than " + MAX_MATCHES + " authors, narrow the search");
+                }
+            }
+        }
+        Collections.sort(matches);
+        return matches;
+    }
+
+    /**
+     * Indexes the author's current names once the surrounding transaction commits.
+     */
+    public void indexAfterCommit(Author author) {
+        Long id = author.getId();
+        IndexedName indexedName = new IndexedName(normalize(author.getFirstName()), normalize(author.getLastName()));
+        AfterCommit.run(() -> put(id, indexedName));
+    }
+
+    void index(Author author) {
+        put(author.getId(), new IndexedName(normalize(author.getFirstName()), normalize(author.getLastName())));
+    }
+
+    private synchronized void put(Long id, IndexedName indexedName) {
+        IndexedName previous = names.put(id, indexedName);
+        if (previous != null) {
+            previous.trigrams().forEach(gram -> {
+                Set<Long> ids = postings.get(gram);
+                if (ids != null) {
+                    ids.remove(id);
+                }
+            });
+        }
+        indexedName.trigrams().forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+    }
+
+    private Collection<Long> candidatesFor(String query) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : trigrams(query)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null || ids.isEmpty()) {
+                return List.of();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        Set<Long> candidates = new HashSet<>(lists.get(0));
+        for (int i = 1; i < lists.size() && !candidates.isEmpty(); i++) {
+            candidates.retainAll(lists.get(i));
+        }
+        return candidates;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    private static Set<String> trigrams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_SIZE <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_SIZE));
+        }
+        return grams;
+    }
+
+    private record IndexedName(String firstName, String lastName) {
+
+        boolean contains(String query) {
+            return firstName.contains(query) || lastName.contains(query);
+        }
+
+        Set<String> trigrams() {
+            Set<String> grams = AuthorNameIndex.trigrams(firstName);
+            grams.addAll(AuthorNameIndex.trigrams(lastName));
+            return grams;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package au.com.learning.search;
+
+import au.com.learning.dto.AuthorFacetDTO;
+import au.com.learning.dto.FacetCountsDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.FacetCount;
+import au.com.learning.transaction.AfterCommit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Book counts per genre, per author and per (author, genre), built from one grouped count query at startup and then
+ * kept current by the write paths, so reads never touch the database. Books without a genre count towards their
+ * author only.
+ */
+@Component
+@Slf4j
+public class CatalogFacets implements SmartInitializingSingleton {
+
+    private final BookRepository bookRepository;
+
+    private final Map<String, LongAdder> genreCounts = new ConcurrentHashMap<>();
+    private final Map<Long, AuthorCounts> authorCounts = new ConcurrentHashMap<>();
+
+    public CatalogFacets(BookRepository bookRepository) {
+        this.bookRepository = bookRepository;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long books = 0;
+        for (FacetCount count : bookRepository.countByAuthorAndGenre()) {
+            add(count.authorId(), count.authorFirstName(), count.authorLastName(), count.genere(), count.books());
+            books += count.books();
+        }
+        log.info("Catalog facets built from {} books", books);
+    }
+
+    public FacetCountsDTO snapshot() {
+        List<AuthorFacetDTO> authors = new ArrayList<>();
+        authorCounts.forEach((id, counts) -> authors.add(new AuthorFacetDTO(id, counts.firstName, counts.lastName,
+                counts.books.sum(), sum(counts.genres))));
+        authors.sort(Comparator.comparing(AuthorFacetDTO::id));
+        return new FacetCountsDTO(sum(genreCounts), authors);
+    }
+
+    /**
+     * Counts the saved book once the surrounding transaction commits.
+     */
+    public void bookAddedAfterCommit(Book book) {
+        Author author = book.getAuthor();
+        Long authorId = author.getId();
+        String firstName = author.getFirstName();
+        String lastName = author.getLastName();
+        String genre = book.getGenere();
+        AfterCommit.run(() -> add(authorId, firstName, lastName, genre, 1));
+    }
+
+    /**
+     * Picks up the author's new names once the surrounding transaction commits; counts are unaffected.
+     */
+    public void authorUpdatedAfterCommit(Author author) {
+        Long authorId = author.getId();
+        String firstName = author.getFirstName();
+        String lastName = author.getLastName();
+        AfterCommit.run(() -> {
+            AuthorCounts counts = authorCounts.get(authorId);
+            if (counts != null) {
+                counts.rename(firstName, lastName);
+            }
+        });
+    }
+
+    private void add(Long authorId, String firstName, String lastName, String genre, long books) {
+        AuthorCounts counts = authorCounts.computeIfAbsent(authorId, id -> new AuthorCounts());
+        counts.rename(firstName, lastName);
+        counts.books.add(books);
+        if (genre != null) {
+            genreCounts.computeIfAbsent(genre, key -> new LongAdder()).add(books);
+            counts.genres.computeIfAbsent(genre, key -> new LongAdder()).add(books);
+        }
+    }
+
+    private static Map<String, Long> sum(Map<String, LongAdder> counts) {
+        Map<String, Long> sums = new TreeMap<>();
+        counts.forEach((key, count) -> sums.put(key, count.sum()));
+        return sums;
+    }
+
+    private static final class AuthorCounts {
+        private volatile String firstName;
+        private volatile String lastName;
+        private final LongAdder books = new LongAdder();
+        private final Map<String, LongAdder> genres = new ConcurrentHashMap<>();
+
+        private void rename(String firstName, String lastName) {
+            this.firstName = firstName;
+            this.lastName = lastName;
+        }
+    }
+}
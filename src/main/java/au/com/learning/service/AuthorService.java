@@ -1,23 +1,36 @@
 package au.com.learning.service;
 
+import au.com.learning.cache.BookCache;
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.CatalogVersion;
+import au.com.learning.cache.SingleFlight;
 import au.com.learning.dto.AuthorResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.entity.Book;
 import au.com.learning.repository.author.AuthorRepository;
+import au.com.learning.search.AuthorNameIndex;
+import au.com.learning.search.CatalogFacets;
 import au.com.learning.validator.AuthorValidator;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
+@Timed("library.service")
 public class AuthorService implements AuthorServiceIF {
 
     @Autowired
@@ -26,24 +39,79 @@ public class AuthorService implements AuthorServiceIF {
     @Autowired
     private AuthorValidator authorValidator;
 
+    @Autowired
+    private BookCache bookCache;
+
+    @Autowired
+    private AuthorNameIndex authorNameIndex;
+
+    @Autowired
+    private CatalogFacets catalogFacets;
+
+    @Autowired
+    private CatalogVersion catalogVersion;
+
+    @Autowired
+    private CatalogSnapshot catalogSnapshot;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${app.author-update.max-retries:3}")
+    private int maxUpdateRetries;
+
+    @SingleFlight(ignoreCase = true)
     @Transactional(readOnly = true)
     public List<AuthorResponseDTO> getAuthorsByName(String name) {
 
-        List<Author> authors = authorRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase(name, name);
+        List<Long> authorIds = authorNameIndex.findAuthorIds(name);
 
-        if (ObjectUtils.isEmpty(authors)) {
+        if (ObjectUtils.isEmpty(authorIds)) {
             throw new IllegalArgumentException("Author not found");
         }
 
+        List<Author> authors = authorRepository.findByIdInOrderByIdAsc(authorIds);
+
         return authors.stream().map(this::mapToAuthorResponseDTO).collect(Collectors.toList());
     }
 
-    @Transactional
+    /**
+     * Applies the non-null fields of the request under optimistic locking. A request carrying {@code version} must
+     * match the stored version or it fails straight away. A request without one is retried, up to
+     * {@code app.author-update.max-retries} times, when a concurrent update commits first, as long as that update
+     * left the fields this request sets untouched; otherwise the conflict is reported.
+     */
     public AuthorResponseDTO updateAuthor(Long id, Author requestAuthor) {
         log.info("Updating author with id {}", id);
+        UpdateState state = new UpdateState();
+        for (int retries = 0; ; retries++) {
+            try {
+                return transactionTemplate.execute(status -> applyUpdate(id, requestAuthor, state));
+            } catch (OptimisticLockingFailureException e) {
+                if (requestAuthor.getVersion() != null || state.overlapping || retries >= maxUpdateRetries) {
+                    log.info("Update of author {} conflicts with a concurrent update", id);
+                    throw e;
+                }
+                log.info("Retrying update of author {} after a concurrent update", id);
+            }
+        }
+    }
+
+    private AuthorResponseDTO applyUpdate(Long id, Author requestAuthor, UpdateState state) {
         Author existingAuthor = authorRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Author not found"));
 
+        if (requestAuthor.getVersion() != null && !requestAuthor.getVersion().equals(existingAuthor.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Author.class, id);
+        }
+        AuthorFields current = AuthorFields.of(existingAuthor);
+        if (state.baseline == null) {
+            state.baseline = current;
+        } else if (state.baseline.changedAnyOf(current, requestAuthor)) {
+            state.overlapping = true;
+            throw new ObjectOptimisticLockingFailureException(Author.class, id);
+        }
+
         authorValidator.validateForUpdate(id, requestAuthor, existingAuthor);
 
         Optional.ofNullable(requestAuthor.getFirstName()).ifPresent(existingAuthor::setFirstName);
@@ -52,12 +120,30 @@ public class AuthorService implements AuthorServiceIF {
         Optional.ofNullable(requestAuthor.getBio()).ifPresent(existingAuthor::setBio);
         Optional.ofNullable(requestAuthor.getGenere()).ifPresent(existingAuthor::setGenere);
 
-        Author updatedAuthor = authorRepository.save(existingAuthor);
+        Author updatedAuthor = authorRepository.saveAndFlush(existingAuthor);
         log.info("Updated author with id {}", updatedAuthor.getId());
+        authorNameIndex.indexAfterCommit(updatedAuthor);
+        catalogFacets.authorUpdatedAfterCommit(updatedAuthor);
+        catalogVersion.bumpAfterCommit();
+        catalogSnapshot.rebuildAfterCommit();
+        // every cached book embeds its author, so all of this author's books are replaced with the new author
+        bookCache.putAfterCommit(mapToCachedBooks(updatedAuthor));
         return mapToAuthorResponseDTO(updatedAuthor);
     }
 
-    private AuthorResponseDTO mapToAuthorResponseDTO(Author author) {
+    /**
+     * The author's books as {@code getBookById} returns them, versions included.
+     */
+    List<BookResponseDTO> mapToCachedBooks(Author author) {
+        AuthorResponseDTO embeddedAuthor = new AuthorResponseDTO(author.getId(), author.getFirstName(),
+                author.getLastName(), author.getEmail(), author.getBio(), author.getGenere(), null, author.getVersion());
+        return author.getBooks()
+                .stream()
+                .map(book -> new BookResponseDTO(book.getId(), book.getTitle(), book.getGenere(), embeddedAuthor, book.getVersion()))
+                .collect(Collectors.toList());
+    }
+
+    AuthorResponseDTO mapToAuthorResponseDTO(Author author) {
         List<BookResponseDTO> books = author.getBooks()
                 .stream()
                 .map(this::mapToBookDTO)
@@ -70,7 +156,8 @@ public class AuthorService implements AuthorServiceIF {
                 author.getEmail(),
                 author.getBio(),
                 author.getGenere(),
-                books
+                books,
+                author.getVersion()
         );
     }
 
@@ -82,5 +169,30 @@ public class AuthorService implements AuthorServiceIF {
                 null
         );
     }
-}
 
+    private static final class UpdateState {
+        // the author as the first attempt read it
+        private AuthorFields baseline;
+        private boolean overlapping;
+    }
+
+    private record AuthorFields(String firstName, String lastName, String email, String bio, String genere) {
+
+        static AuthorFields of(Author author) {
+            return new AuthorFields(author.getFirstName(), author.getLastName(), author.getEmail(), author.getBio(),
+                    author.getGenere());
+        }
+
+        /**
+         * Whether any field the request sets differs between this read and {@code current}, i.e. whether a
+         * concurrent update touched the same fields.
+         */
+        boolean changedAnyOf(AuthorFields current, Author request) {
+            return (request.getFirstName() != null && !Objects.equals(firstName, current.firstName))
+                    || (request.getLastName() != null && !Objects.equals(lastName, current.lastName))
+                    || (request.getEmail() != null && !Objects.equals(email, current.email))
+                    || (request.getBio() != null && !Objects.equals(bio, current.bio))
+                    || (request.getGenere() != null && !Objects.equals(genere, current.genere));
+        }
+    }
+}
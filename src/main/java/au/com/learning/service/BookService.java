@@ -1,137 +1,374 @@
 package au.com.learning.service;
 
+import au.com.learning.cache.BookCache;
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.CatalogVersion;
+import au.com.learning.cache.SingleFlight;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookBatchResponseDTO;
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookPageResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.dto.FacetCountsDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.entity.Book;
 import au.com.learning.repository.author.AuthorRepository;
+import au.com.learning.repository.book.BookKey;
 import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.BookRow;
 import au.com.learning.repository.book.specification.BookSpecifications;
+import au.com.learning.search.AuthorNameIndex;
+import au.com.learning.search.CatalogFacets;
+import io.micrometer.core.annotation.Timed;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.ObjectUtils;
 import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
+@Timed("library.service")
 public class BookService implements BookServiceIF{
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+    static final int MAX_BULK_SIZE = 10_000;
+    static final String DUPLICATE_BOOK_MESSAGE = "Book with the same title by the same author already exists";
 
     private final BookRepository bookRepository;
     private final AuthorRepository authorRepository;
-    public BookService(BookRepository bookRepository, AuthorRepository authorRepository) {
+    private final BookCache bookCache;
+    private final AuthorNameIndex authorNameIndex;
+    private final CatalogFacets catalogFacets;
+    private final CatalogVersion catalogVersion;
+    private final CatalogSnapshot catalogSnapshot;
+    public BookService(BookRepository bookRepository, AuthorRepository authorRepository,
+                       BookCache bookCache, AuthorNameIndex authorNameIndex, CatalogFacets catalogFacets,
+                       CatalogVersion catalogVersion, CatalogSnapshot catalogSnapshot) {
         this.bookRepository = bookRepository;
         this.authorRepository = authorRepository;
+        this.bookCache = bookCache;
+        this.authorNameIndex = authorNameIndex;
+        this.catalogFacets = catalogFacets;
+        this.catalogVersion = catalogVersion;
+        this.catalogSnapshot = catalogSnapshot;
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<BookResponseDTO> getAllBooks() {
-         List<Book> books = bookRepository.findAll();
-        return books.stream()
-                .map(book -> {
-                    AuthorResponseDTO authorResponseDTO = new AuthorResponseDTO(
-                            book.getAuthor().getId(),
-                            book.getAuthor().getFirstName(),
-                            book.getAuthor().getLastName(),
-                            book.getAuthor().getEmail(),
-                            book.getAuthor().getBio(),
-                            book.getAuthor().getGenere(),
-                            null);
-                    return  new BookResponseDTO(book.getId(), book.getTitle(), book.getGenere(), authorResponseDTO);
-                }).collect(Collectors.toList());
+        return bookRepository.findRows(null).stream()
+                .map(BookRow::toBookResponseDTO)
+                .collect(Collectors.toList());
     }
 
+    /**
+     * The {@link #getAllBooks()} response already serialized, for callers that write bytes straight out.
+     */
     @Override
-    @Transactional
-    public AuthorResponseDTO saveBook(Book requestBook){
+    public CatalogSnapshot.Snapshot getAllBooksSnapshot() {
+        return catalogSnapshot.get();
+    }
 
-        if(ObjectUtils.isEmpty(requestBook) || StringUtils.isBlank(requestBook.getTitle())){
-            log.error("Book request cannot be null");
-            throw new IllegalArgumentException("Book request or Book title cannot be empty or null");
+    /**
+     * Hands every book to the consumer as the database produces it. The rows are projections rather than entities,
+     * so nothing accumulates in the persistence context and the heap stays flat whatever the catalog size.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAllBooks(Consumer<BookResponseDTO> consumer) {
+        try (Stream<BookRow> rows = bookRepository.streamRows(null, Sort.by("id"))) {
+            rows.forEach(row -> consumer.accept(row.toBookResponseDTO()));
         }
+    }
 
-        Author requestAuthor = requestBook.getAuthor();
-        String requestBookTitle = requestBook.getTitle();
+    /**
+     * Keyset page over the catalog ordered by id. Only {@code limit + 1} rows are read per call,
+     * so the cost of a page does not depend on how deep the client has paged.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookPageResponseDTO getBooksPage(Long after, Integer limit) {
+        int pageSize = ObjectUtils.isEmpty(limit) ? DEFAULT_PAGE_SIZE : limit;
+        if (pageSize < 1 || pageSize > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        long cursor = ObjectUtils.isEmpty(after) ? 0L : after;
+        if (cursor < 0) {
+            throw new IllegalArgumentException("Page cursor cannot be negative");
+        }
 
-        if(ObjectUtils.isEmpty(requestAuthor)){
-            log.error("Book author cannot be null");
-            throw new IllegalArgumentException("Book author cannot be null");
+        List<BookRow> rows = bookRepository.findFirstRows(BookSpecifications.hasIdGreaterThan(cursor), pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<BookResponseDTO> page = rows.stream()
+                .limit(pageSize)
+                .map(BookRow::toBookResponseDTO)
+                .collect(Collectors.toList());
+
+        Long nextCursor = hasMore ? page.get(page.size() - 1).id() : null;
+        return new BookPageResponseDTO(page, nextCursor);
+    }
+
+    /**
+     * Returns the requested books in request order. Books already in the book cache are served from it; the rest
+     * are read with one IN query and cached, unless a newer version was cached meanwhile. Ids that match no book
+     * are listed in {@code missingIds}.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public BookBatchResponseDTO getBooksByIds(List<Long> ids) {
+        if (ObjectUtils.isEmpty(ids) || ids.size() > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_PAGE_SIZE + " book ids must be requested");
+        }
+        if (ids.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Book ids cannot be null");
         }
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        Map<Long, BookResponseDTO> found = new HashMap<>(bookCache.getAll(distinctIds));
 
-        if(StringUtils.isBlank(requestAuthor.getEmail())){
-            log.info("Author email is required");
-            throw new IllegalArgumentException("Author email is required");
+        List<Long> misses = distinctIds.stream().filter(id -> !found.containsKey(id)).collect(Collectors.toList());
+        if (!misses.isEmpty()) {
+            List<BookResponseDTO> loaded = bookRepository.findRows(BookSpecifications.hasIdIn(misses)).stream()
+                    .map(BookRow::toBookResponseDTO)
+                    .collect(Collectors.toList());
+            bookCache.putAll(loaded);
+            loaded.forEach(book -> found.put(book.id(), book));
+        }
+
+        List<BookResponseDTO> books = new ArrayList<>(ids.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : distinctIds) {
+            BookResponseDTO book = found.get(id);
+            if (book != null) {
+                books.add(book);
+            } else {
+                missingIds.add(id);
+            }
         }
+        return new BookBatchResponseDTO(books, missingIds);
+    }
+
+    @Override
+    @Transactional
+    public AuthorResponseDTO saveBook(Book requestBook){
+
+        validateBookRequest(requestBook);
+
+        Author requestAuthor = requestBook.getAuthor();
+        String requestBookTitle = requestBook.getTitle();
 
         Author managedAuthor = authorRepository.findByEmail(requestAuthor.getEmail())
                 .map(existingAuthor -> {
                     log.info("Author email already exists {}", existingAuthor.getEmail());
                     return existingAuthor;
                 }).orElseGet(() -> {
-                    if(StringUtils.isBlank(requestAuthor.getFirstName()) && StringUtils.isBlank(requestAuthor.getLastName())){
-                        log.error("New author must have first name and last name");
-                        throw new IllegalArgumentException("New author must have first name and last name");
-                    }
-                    return authorRepository.save(requestAuthor);
+                    validateNewAuthor(requestAuthor);
+                    Author savedAuthor = authorRepository.save(requestAuthor);
+                    authorNameIndex.indexAfterCommit(savedAuthor);
+                    return savedAuthor;
                 });
 
-        if(bookRepository.existsByTitleAndAuthorEmail(requestBookTitle, requestAuthor.getEmail())){
-            log.error("Book with title {} by author email {} already exists", requestBookTitle, requestAuthor.getEmail());
-            throw new IllegalArgumentException("Book with the same title by the same author already exists");
-        }
-
         log.info("Author updated {} with first name {}", managedAuthor, managedAuthor.getFirstName());
         requestBook.setAuthor(managedAuthor);
-        bookRepository.save(requestBook);
+        // the (title, author_id) unique constraint is the duplicate check, so concurrent posts cannot both pass it
+        try {
+            bookRepository.saveAndFlush(requestBook);
+        } catch (DataIntegrityViolationException e) {
+            if (!StringUtils.containsIgnoreCase(ExceptionUtils.getRootCauseMessage(e), Book.TITLE_AUTHOR_CONSTRAINT)) {
+                throw e;
+            }
+            log.error("Book with title {} by author email {} already exists", requestBookTitle, requestAuthor.getEmail());
+            throw new IllegalArgumentException(DUPLICATE_BOOK_MESSAGE);
+        }
+        catalogFacets.bookAddedAfterCommit(requestBook);
+        catalogVersion.bumpAfterCommit();
+        catalogSnapshot.rebuildAfterCommit();
         log.info("Book saved successfully with title {}, preparing the response", requestBookTitle);
 
         return mapToAuthorResponseDTO(requestBook);
     }
 
+    /**
+     * Saves a batch of books with the same rules as {@link #saveBook(Book)}, reporting a result per item instead of
+     * failing the whole batch. Authors and existing (title, email) pairs are resolved with one query each and the
+     * inserts are flushed as JDBC batches.
+     */
     @Override
-    public Map<String, List<BookResponseDTO>> getFilteredBooks(String author, String genre) {
-        List<BookResponseDTO> filteredBooks = getFilteredBooksByAuthorAndGenre(author, genre);
-        return filteredBooks.stream().collect(Collectors.groupingBy(BookResponseDTO::genere));
+    @Transactional
+    public List<BookIngestResultDTO> saveBooks(List<Book> requestBooks) {
+        if (ObjectUtils.isEmpty(requestBooks)) {
+            throw new IllegalArgumentException("Book list cannot be empty or null");
+        }
+        if (requestBooks.size() > MAX_BULK_SIZE) {
+            throw new IllegalArgumentException("A bulk request can contain at most " + MAX_BULK_SIZE + " books");
+        }
+
+        BookIngestResultDTO[] results = new BookIngestResultDTO[requestBooks.size()];
+        List<Integer> validIndexes = new ArrayList<>();
+        for (int i = 0; i < requestBooks.size(); i++) {
+            try {
+                validateBookRequest(requestBooks.get(i));
+                validIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookIngestResultDTO.rejected(i, requestBooks.get(i), e.getMessage());
+            }
+        }
+
+        Set<String> emails = new HashSet<>();
+        Set<String> titles = new HashSet<>();
+        validIndexes.forEach(i -> {
+            emails.add(requestBooks.get(i).getAuthor().getEmail());
+            titles.add(requestBooks.get(i).getTitle());
+        });
+
+        Map<String, Author> authorsByEmail = new HashMap<>();
+        Set<BookKey> existingBooks = new HashSet<>();
+        if (!validIndexes.isEmpty()) {
+            authorRepository.findByEmailIn(emails).forEach(author -> authorsByEmail.put(author.getEmail(), author));
+            existingBooks.addAll(bookRepository.findExistingKeys(titles, emails));
+        }
+
+        List<Author> newAuthors = new ArrayList<>();
+        List<Book> booksToSave = new ArrayList<>();
+        List<Integer> savedIndexes = new ArrayList<>();
+        for (Integer i : validIndexes) {
+            Book requestBook = requestBooks.get(i);
+            Author requestAuthor = requestBook.getAuthor();
+            try {
+                Author managedAuthor = authorsByEmail.get(requestAuthor.getEmail());
+                if (managedAuthor == null) {
+                    validateNewAuthor(requestAuthor);
+                }
+                if (!existingBooks.add(new BookKey(requestBook.getTitle(), requestAuthor.getEmail()))) {
+                    throw new IllegalArgumentException(DUPLICATE_BOOK_MESSAGE);
+                }
+                if (managedAuthor == null) {
+                    managedAuthor = requestAuthor;
+                    authorsByEmail.put(requestAuthor.getEmail(), managedAuthor);
+                    newAuthors.add(managedAuthor);
+                }
+                requestBook.setAuthor(managedAuthor);
+                booksToSave.add(requestBook);
+                savedIndexes.add(i);
+            } catch (IllegalArgumentException e) {
+                results[i] = BookIngestResultDTO.rejected(i, requestBook, e.getMessage());
+            }
+        }
+
+        authorRepository.saveAll(newAuthors);
+        bookRepository.saveAll(booksToSave);
+        newAuthors.forEach(authorNameIndex::indexAfterCommit);
+        booksToSave.forEach(catalogFacets::bookAddedAfterCommit);
+        if (!booksToSave.isEmpty()) {
+            catalogVersion.bumpAfterCommit();
+            catalogSnapshot.rebuildAfterCommit();
+        }
+
+        savedIndexes.forEach(i -> results[i] = BookIngestResultDTO.created(i, requestBooks.get(i)));
+        log.info("Bulk request saved {} of {} books and {} new authors", booksToSave.size(), requestBooks.size(), newAuthors.size());
+        return Arrays.asList(results);
     }
 
+    /**
+     * Books by matching authors in the genre, grouped by genre. The database returns the rows ordered by genre so the
+     * groups are built in a single streaming pass, in a stable order. When a limit is given the database also caps
+     * each genre at {@code limitPerGenre} books (lowest ids first), so rows past the cap are neither read nor mapped.
+     * Identical concurrent calls share one query.
+     */
     @Override
+    @SingleFlight(ignoreCase = true)
     @Transactional(readOnly = true)
+    public Map<String, List<BookResponseDTO>> getFilteredBooks(String author, String genre, Integer limitPerGenre) {
+
+        if (StringUtils.isBlank(genre) || StringUtils.isBlank(author)) {
+            throw new IllegalArgumentException("Both 'author' and 'genre' parameters are required for filtering.");
+        }
+        if (limitPerGenre != null && limitPerGenre < 1) {
+            throw new IllegalArgumentException("Per-genre limit must be at least 1");
+        }
+
+        List<Long> authorIds = authorNameIndex.findAuthorIds(author);
+        if (authorIds.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+
+        if (limitPerGenre != null) {
+            try (Stream<BookRow> rows = bookRepository.streamRowsCappedPerGenre(authorIds, genre, limitPerGenre)) {
+                return groupByGenre(rows.map(BookRow::toBookResponseDTO));
+            }
+        }
+
+        Specification<Book> bookSpecification = Specification.where(BookSpecifications.hasAuthorIn(authorIds))
+                .and(BookSpecifications.hasGenre(genre));
+
+        try (Stream<BookRow> rows = bookRepository.streamRows(bookSpecification, Sort.by("genere", "id"))) {
+            return groupByGenre(rows.map(BookRow::toBookResponseDTO));
+        }
+    }
+
+    /**
+     * Groups books that arrive already ordered by genre, so each group is appended to in turn and never revisited.
+     */
+    static Map<String, List<BookResponseDTO>> groupByGenre(Stream<BookResponseDTO> booksOrderedByGenre) {
+        Map<String, List<BookResponseDTO>> grouped = new LinkedHashMap<>();
+        booksOrderedByGenre.forEach(book -> grouped.computeIfAbsent(book.genere(), key -> new ArrayList<>()).add(book));
+        return grouped;
+    }
+
+    @Override
+    public FacetCountsDTO getFacets() {
+        return catalogFacets.snapshot();
+    }
+
+    @Override
     public BookResponseDTO getBookById(Long id) {
+        BookResponseDTO cached = bookCache.get(id);
+        if (cached != null) {
+            return cached;
+        }
         Book book = bookRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Book not found with ID: " + id));
-        return mapToBookResponseDTO(book);
+        BookResponseDTO loaded = mapToBookResponseDTO(book);
+        bookCache.put(loaded);
+        return loaded;
     }
 
 
-    @Transactional(readOnly = true)
-    public List<BookResponseDTO> getFilteredBooksByAuthorAndGenre(String author, String genre){
-
-        if (StringUtils.isBlank(genre) || StringUtils.isBlank(author)) {
-            throw new IllegalArgumentException("Both 'author' and 'genre' parameters are required for filtering.");
+    static void validateBookRequest(Book requestBook) {
+        if(ObjectUtils.isEmpty(requestBook) || StringUtils.isBlank(requestBook.getTitle())){
+            log.error("Book request cannot be null");
+            throw new IllegalArgumentException("Book request or Book title cannot be empty or null");
         }
 
-        Specification<Book> bookSpecification = Specification.where(null);
-
-        if(!StringUtils.isBlank(author)){
-            bookSpecification = bookSpecification.and(BookSpecifications.hasAuthor(author));
+        if(ObjectUtils.isEmpty(requestBook.getAuthor())){
+            log.error("Book author cannot be null");
+            throw new IllegalArgumentException("Book author cannot be null");
         }
-        if(!StringUtils.isBlank(genre)){
-            bookSpecification = bookSpecification.and(BookSpecifications.hasGenre(genre));
+
+        if(StringUtils.isBlank(requestBook.getAuthor().getEmail())){
+            log.info("Author email is required");
+            throw new IllegalArgumentException("Author email is required");
         }
+    }
 
-        List<Book> books = bookRepository.findAll(bookSpecification);
-        return books.stream().map(this::mapToBookResponseDTO).collect(Collectors.toList());
+    private void validateNewAuthor(Author requestAuthor) {
+        if(StringUtils.isBlank(requestAuthor.getFirstName()) && StringUtils.isBlank(requestAuthor.getLastName())){
+            log.error("New author must have first name and last name");
+            throw new IllegalArgumentException("New author must have first name and last name");
+        }
     }
 
-    private BookResponseDTO mapToBookResponseDTO(Book book) {
+    BookResponseDTO mapToBookResponseDTO(Book book) {
         AuthorResponseDTO authorResponseDTO = null;
         if(!ObjectUtils.isEmpty(book.getAuthor())) {
             authorResponseDTO = new AuthorResponseDTO(
@@ -141,13 +378,14 @@ public class BookService implements BookServiceIF{
                     book.getAuthor().getEmail(),
                     book.getAuthor().getBio(),
                     book.getAuthor().getGenere(),
-                    null);
+                    null,
+                    book.getAuthor().getVersion());
         }
 
-        return  new BookResponseDTO(book.getId(), book.getTitle(), book.getGenere(), authorResponseDTO);
+        return  new BookResponseDTO(book.getId(), book.getTitle(), book.getGenere(), authorResponseDTO, book.getVersion());
         }
 
-    private AuthorResponseDTO mapToAuthorResponseDTO(Book responseBook) {
+    AuthorResponseDTO mapToAuthorResponseDTO(Book responseBook) {
         BookResponseDTO bookResponseDTO = new BookResponseDTO(
                 responseBook.getId(),
                 responseBook.getTitle(),
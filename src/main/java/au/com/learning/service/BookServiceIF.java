@@ -1,18 +1,36 @@
 package au.com.learning.service;
 
+import au.com.learning.cache.CatalogSnapshot;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookBatchResponseDTO;
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookPageResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.dto.FacetCountsDTO;
 import au.com.learning.entity.Book;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 public interface BookServiceIF {
     List<BookResponseDTO> getAllBooks();
 
+    CatalogSnapshot.Snapshot getAllBooksSnapshot();
+
+    void streamAllBooks(Consumer<BookResponseDTO> consumer);
+
+    BookPageResponseDTO getBooksPage(Long after, Integer limit);
+
+    BookBatchResponseDTO getBooksByIds(List<Long> ids);
+
     AuthorResponseDTO saveBook(Book book);
 
-    Map<String, List<BookResponseDTO>> getFilteredBooks(String author, String genre);
+    List<BookIngestResultDTO> saveBooks(List<Book> books);
+
+    Map<String, List<BookResponseDTO>> getFilteredBooks(String author, String genre, Integer limitPerGenre);
 
     BookResponseDTO getBookById(Long id);
+
+    FacetCountsDTO getFacets();
 }
@@ -0,0 +1,209 @@
+package au.com.learning.service;
+
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookWriteStatusDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Write-behind path for {@code /addBookAsync}. A book is validated in the request thread, copied onto a bounded
+ * queue and acknowledged with a tracking id; a single writer thread drains the queue and saves what it finds in one
+ * {@link BookServiceIF#saveBooks(List)} transaction per batch, so the {@code saveBook} rules apply unchanged. When the
+ * queue is full the request is refused rather than blocked. Outcomes are kept for a while so clients can poll them.
+ */
+@Component
+@Slf4j
+public class BookWriteBehind implements SmartLifecycle {
+
+    private static final long POLL_MILLIS = 200;
+
+    private final BookServiceIF bookService;
+    private final int batchSize;
+    private final BlockingQueue<PendingBook> queue;
+    private final Cache<String, BookWriteStatusDTO> statuses;
+
+    // submits hold the read side while they check running and enqueue, stop() takes the write side to flip it, so
+    // nothing can be queued after the writer has been told to finish
+    private final ReadWriteLock acceptLock = new ReentrantReadWriteLock();
+    private volatile boolean running;
+    private Thread writer;
+
+    public BookWriteBehind(BookServiceIF bookService, MeterRegistry meterRegistry,
+                           @Value("${app.book-write-behind.capacity:1000}") int capacity,
+                           @Value("${app.book-write-behind.batch-size:100}") int batchSize,
+                           @Value("${app.book-write-behind.status-retention:PT1H}") Duration statusRetention) {
+        this.bookService = bookService;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(capacity * 100L)
+                .expireAfterWrite(statusRetention)
+                .build();
+        meterRegistry.gauge("library.write-behind.queue.size", queue, BlockingQueue::size);
+    }
+
+    /**
+     * Validates the book and queues it for the writer, returning its pending status.
+     *
+     * @throws IllegalArgumentException if the book fails the request checks of {@code saveBook}
+     * @throws WriteQueueFullException  if the queue is full or the writer is shutting down
+     */
+    public BookWriteStatusDTO submit(Book book) {
+        BookService.validateBookRequest(book);
+        acceptLock.readLock().lock();
+        try {
+            if (!running) {
+                throw new WriteQueueFullException("Book writes are not being accepted, retry later");
+            }
+            String trackingId = UUID.randomUUID().toString();
+            BookWriteStatusDTO pending = BookWriteStatusDTO.pending(trackingId);
+            statuses.put(trackingId, pending);
+            if (!queue.offer(new PendingBook(trackingId, copy(book)))) {
+                statuses.invalidate(trackingId);
+                throw new WriteQueueFullException("Book write queue is full, retry later");
+            }
+            return pending;
+        } finally {
+            acceptLock.readLock().unlock();
+        }
+    }
+
+    public BookWriteStatusDTO getStatus(String trackingId) {
+        BookWriteStatusDTO status = trackingId == null ? null : statuses.getIfPresent(trackingId);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown or expired tracking id: " + trackingId);
+        }
+        return status;
+    }
+
+    @Override
+    public synchronized void start() {
+        running = true;
+        writer = new Thread(this::drain, "book-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops accepting books and waits for the writer to save what is already queued.
+     */
+    @Override
+    public synchronized void stop() {
+        acceptLock.writeLock().lock();
+        try {
+            running = false;
+        } finally {
+            acceptLock.writeLock().unlock();
+        }
+        if (writer != null) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writer = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void drain() {
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingBook first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<PendingBook> batch = new ArrayList<>(batchSize);
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - 1);
+                    write(batch);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Book write-behind writer failed", e);
+            }
+        }
+    }
+
+    /**
+     * Saves a batch in one transaction. If the transaction itself fails, for instance because a concurrent
+     * {@code /addBook} took a title first, the books are saved one at a time so only the offending one fails.
+     */
+    void write(List<PendingBook> batch) {
+        List<Book> books = batch.stream().map(pending -> copy(pending.book())).toList();
+        List<BookIngestResultDTO> results;
+        try {
+            results = bookService.saveBooks(books);
+        } catch (RuntimeException e) {
+            log.warn("Write-behind batch of {} books failed, saving them one by one", batch.size(), e);
+            batch.forEach(this::writeOne);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            BookIngestResultDTO result = results.get(i);
+            String trackingId = batch.get(i).trackingId();
+            statuses.put(trackingId, result.status() == BookIngestResultDTO.Status.CREATED
+                    ? new BookWriteStatusDTO(trackingId, BookWriteStatusDTO.Status.CREATED, result.bookId(), null)
+                    : new BookWriteStatusDTO(trackingId, BookWriteStatusDTO.Status.REJECTED, null, result.message()));
+        }
+        log.info("Write-behind batch saved, {} books", batch.size());
+    }
+
+    private void writeOne(PendingBook pending) {
+        Book book = copy(pending.book());
+        String trackingId = pending.trackingId();
+        try {
+            bookService.saveBook(book);
+            statuses.put(trackingId, new BookWriteStatusDTO(trackingId, BookWriteStatusDTO.Status.CREATED, book.getId(), null));
+        } catch (IllegalArgumentException e) {
+            statuses.put(trackingId, new BookWriteStatusDTO(trackingId, BookWriteStatusDTO.Status.REJECTED, null, e.getMessage()));
+        } catch (RuntimeException e) {
+            log.error("Write-behind save failed for tracking id {}", trackingId, e);
+            statuses.put(trackingId, new BookWriteStatusDTO(trackingId, BookWriteStatusDTO.Status.FAILED, null, "Book could not be saved"));
+        }
+    }
+
+    /**
+     * A fresh, unsaved copy of the requested fields, so an attempt that rolls back leaves nothing (ids, managed
+     * authors) behind for the next one.
+     */
+    static Book copy(Book source) {
+        Author sourceAuthor = source.getAuthor();
+        Author author = new Author();
+        author.setFirstName(sourceAuthor.getFirstName());
+        author.setLastName(sourceAuthor.getLastName());
+        author.setEmail(sourceAuthor.getEmail());
+        author.setBio(sourceAuthor.getBio());
+        author.setGenere(sourceAuthor.getGenere());
+
+        Book book = new Book();
+        book.setTitle(source.getTitle());
+        book.setGenere(source.getGenere());
+        book.setAuthor(author);
+        return book;
+    }
+
+    record PendingBook(String trackingId, Book book) {
+    }
+}
@@ -0,0 +1,11 @@
+package au.com.learning.service;
+
+/**
+ * Thrown when the write-behind queue cannot take another book; clients should back off and retry.
+ */
+public class WriteQueueFullException extends RuntimeException {
+
+    public WriteQueueFullException(String message) {
+        super(message);
+    }
+}
@@ -16,7 +16,11 @@ public class AuthorValidator {
 
     public void validateForUpdate(Long authorId, Author authorRequest,Author existingAuthor) {
         if (authorRequest.getEmail() != null && !authorRequest.getEmail().equals(existingAuthor.getEmail())) {
-            if (authorRepository.existsByEmailAndIdNot(authorRequest.getEmail(), authorId)) {
+            // natural-id lookup, served from the second-level cache for known emails
+            boolean inUse = authorRepository.findByEmail(authorRequest.getEmail())
+                    .filter(other -> !other.getId().equals(authorId))
+                    .isPresent();
+            if (inUse) {
                 log.info("Author email {} is already in use", authorRequest.getEmail());
                 throw new IllegalArgumentException("Email already in use by another author.");
             }
@@ -1,10 +1,18 @@
 -- Drop tables if they exist to start fresh
 DROP TABLE IF EXISTS book;
 DROP TABLE IF EXISTS author;
+DROP SEQUENCE IF EXISTS author_seq;
+DROP SEQUENCE IF EXISTS book_seq;
+
+-- Id sequences, pooled by Hibernate in blocks of 50: a sequence value v hands out ids v-49..v,
+-- so each sequence starts one block past the ids used by data.sql
+CREATE SEQUENCE author_seq START WITH 150 INCREMENT BY 50;
+CREATE SEQUENCE book_seq START WITH 200 INCREMENT BY 50;
 
 --  Author table
 CREATE TABLE author (
-                        id SERIAL PRIMARY KEY,
+                        id BIGINT PRIMARY KEY,
+                        version    BIGINT DEFAULT 0 NOT NULL,
                         first_name VARCHAR(100) NOT NULL,
                         last_name  VARCHAR(100) NOT NULL,
                         email      VARCHAR(150) NOT NULL UNIQUE,
@@ -15,12 +23,19 @@ CREATE TABLE author (
 -- Book table
 CREATE TABLE book (
                       id BIGINT PRIMARY KEY,
+                      version   BIGINT DEFAULT 0 NOT NULL,
                       title     VARCHAR(200) NOT NULL,
                       genere    VARCHAR(100),
+                      genre_key VARCHAR(100) GENERATED ALWAYS AS (LOWER(genere)),
                       author_id BIGINT NOT NULL,
 
+                      CONSTRAINT uk_book_title_author
+                          UNIQUE (title, author_id),
                       CONSTRAINT fk_book_author
                           FOREIGN KEY (author_id)
                               REFERENCES author(id)
                               ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+-- Genre filters compare the generated lowercase key so they can use an index instead of lower(genere) scans
+CREATE INDEX idx_book_genre_key ON book (genre_key);
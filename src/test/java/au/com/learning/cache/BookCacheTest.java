@@ -0,0 +1,73 @@
+package au.com.learning.cache;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookCacheTest {
+
+    private BookCache bookCache;
+
+    @BeforeEach
+    void setup() {
+        bookCache = new BookCache(new ConcurrentMapCacheManager(BookCache.BOOKS));
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void getAll_returnsOnlyCachedBooks_afterPutAll() {
+        BookResponseDTO book = new BookResponseDTO(3L, "Title", "Drama", null);
+
+        bookCache.putAll(List.of(book));
+
+        assertEquals(Map.of(3L, book), bookCache.getAll(List.of(3L, 4L)));
+    }
+
+    @Test
+    void put_replacesOlderBook_butKeepsNewerOne() {
+        bookCache.put(book(3L, "Old", 1L));
+        bookCache.put(book(3L, "New", 2L));
+        bookCache.put(book(3L, "Old", 1L));
+
+        assertEquals("New", bookCache.get(3L).author().firstName());
+    }
+
+    @Test
+    void staleLoad_finishingAfterUpdateCommits_doesNotOverwriteUpdatedBook() {
+        bookCache.put(book(3L, "Old", 1L));
+        // a reader loads the book before the author update commits
+        BookResponseDTO loadedBeforeUpdate = book(3L, "Old", 1L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        bookCache.putAfterCommit(List.of(book(3L, "New", 2L)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+
+        // and only gets to cache it afterwards
+        bookCache.put(loadedBeforeUpdate);
+
+        assertEquals("New", bookCache.get(3L).author().firstName());
+        assertEquals(2L, bookCache.get(3L).author().version());
+    }
+
+    private static BookResponseDTO book(Long id, String authorFirstName, Long authorVersion) {
+        AuthorResponseDTO author = new AuthorResponseDTO(5L, authorFirstName, "Austen", "jane@ex.com", null, null, null, authorVersion);
+        return new BookResponseDTO(id, "Emma", "Novel", author, 0L);
+    }
+}
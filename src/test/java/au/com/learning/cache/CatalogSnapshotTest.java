@@ -0,0 +1,103 @@
+package au.com.learning.cache;
+
+import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.BookRow;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SyncTaskExecutor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogSnapshotTest {
+
+    private final BookRow row = new BookRow(1L, "Title", "Fiction", 10L, "Jane", "Doe", "jane@ex.com", null, null, 0L, 0L);
+
+    private BookRepository bookRepository;
+    private CatalogVersion catalogVersion;
+    private CatalogSnapshot catalogSnapshot;
+
+    @BeforeEach
+    void setup() {
+        bookRepository = mock(BookRepository.class);
+        catalogVersion = new CatalogVersion();
+        catalogSnapshot = new CatalogSnapshot(bookRepository, new ObjectMapper(), catalogVersion, new SyncTaskExecutor(), true);
+        when(bookRepository.findRows(null)).thenReturn(List.of(row));
+    }
+
+    @Test
+    void get_serializesOnce_whileCatalogUnchanged() throws IOException {
+        CatalogSnapshot.Snapshot first = catalogSnapshot.get();
+        CatalogSnapshot.Snapshot second = catalogSnapshot.get();
+
+        assertSame(first, second);
+        assertEquals(catalogVersion.current(), first.eTag());
+        String json = new String(first.json(), StandardCharsets.UTF_8);
+        assertTrue(json.startsWith("[{\"id\":1,\"title\":\"Title\""));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(first.gzip()))) {
+            assertArrayEquals(first.json(), in.readAllBytes());
+        }
+        verify(bookRepository, times(1)).findRows(null);
+    }
+
+    @Test
+    void rebuildAfterCommit_replacesSnapshot_afterCatalogChange() {
+        CatalogSnapshot.Snapshot before = catalogSnapshot.get();
+
+        catalogVersion.bumpAfterCommit();
+        catalogSnapshot.rebuildAfterCommit();
+
+        verify(bookRepository, times(2)).findRows(null);
+        CatalogSnapshot.Snapshot after = catalogSnapshot.get();
+        assertNotEquals(before.eTag(), after.eTag());
+        verify(bookRepository, times(2)).findRows(null);
+    }
+
+    @Test
+    void get_servesPreviousSnapshot_untilBackgroundRebuildRuns() {
+        List<Runnable> queued = new ArrayList<>();
+        catalogSnapshot = new CatalogSnapshot(bookRepository, new ObjectMapper(), catalogVersion, queued::add, true);
+        CatalogSnapshot.Snapshot before = catalogSnapshot.get();
+
+        catalogVersion.bumpAfterCommit();
+        catalogSnapshot.rebuildAfterCommit();
+
+        assertSame(before, catalogSnapshot.get());
+        assertSame(before, catalogSnapshot.get());
+        verify(bookRepository, times(1)).findRows(null);
+        assertEquals(1, queued.size());
+
+        queued.get(0).run();
+
+        CatalogSnapshot.Snapshot after = catalogSnapshot.get();
+        assertNotSame(before, after);
+        assertEquals(catalogVersion.current(), after.eTag());
+        verify(bookRepository, times(2)).findRows(null);
+    }
+
+    @Test
+    void get_queuesRebuild_whenNoWriteQueuedOne() {
+        CatalogSnapshot.Snapshot before = catalogSnapshot.get();
+
+        catalogVersion.bumpAfterCommit();
+
+        assertSame(before, catalogSnapshot.get());
+        assertNotSame(before, catalogSnapshot.get());
+        verify(bookRepository, times(2)).findRows(null);
+    }
+
+    @Test
+    void get_skipsGzip_whenDisabled() {
+        CatalogSnapshot plain = new CatalogSnapshot(bookRepository, new ObjectMapper(), catalogVersion, new SyncTaskExecutor(), false);
+
+        assertNull(plain.get().gzip());
+    }
+}
@@ -0,0 +1,41 @@
+package au.com.learning.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogVersionTest {
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpAfterCommit_changesVersionImmediately_withoutTransaction() {
+        String before = catalogVersion.current();
+
+        catalogVersion.bumpAfterCommit();
+
+        assertNotEquals(before, catalogVersion.current());
+    }
+
+    @Test
+    void bumpAfterCommit_keepsVersionUntilCommit() {
+        String before = catalogVersion.current();
+        TransactionSynchronizationManager.initSynchronization();
+
+        catalogVersion.bumpAfterCommit();
+        assertEquals(before, catalogVersion.current());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertNotEquals(before, catalogVersion.current());
+    }
+}
@@ -0,0 +1,89 @@
+package au.com.learning.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyStoreTest {
+
+    private final IdempotencyStore store = new IdempotencyStore(100, Duration.ofMinutes(5));
+
+    @Test
+    void execute_replaysStoredResponse_withoutRunningActionAgain() {
+        AtomicInteger runs = new AtomicInteger();
+
+        String first = store.execute("key-1", List.of("Emma"), () -> "saved-" + runs.incrementAndGet());
+        String second = store.execute("key-1", List.of("Emma"), () -> "saved-" + runs.incrementAndGet());
+
+        assertEquals("saved-1", first);
+        assertEquals("saved-1", second);
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void execute_doesNotStoreFailures() {
+        assertThrows(IllegalArgumentException.class, () -> store.execute("key-1", List.of("Emma"), () -> {
+            throw new IllegalArgumentException("Author email is required");
+        }));
+
+        assertEquals("saved", store.execute("key-1", List.of("Emma"), () -> "saved"));
+    }
+
+    @Test
+    void execute_refusesKeyReusedForDifferentRequest() {
+        store.execute("key-1", List.of("Emma"), () -> "saved");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> store.execute("key-1", List.of("Persuasion"), () -> "other"));
+
+        assertEquals("Idempotency-Key was already used for a different request", ex.getMessage());
+    }
+
+    @Test
+    void execute_refusesOverlongKey() {
+        String key = "k".repeat(IdempotencyStore.MAX_KEY_LENGTH + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> store.execute(key, List.of("Emma"), () -> "saved"));
+    }
+
+    @Test
+    void execute_concurrentDuplicateWaitsForFirstRequest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() -> store.execute("key-1", List.of("Emma"), () -> {
+            runs.incrementAndGet();
+            started.countDown();
+            await(release);
+            return "saved";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> duplicate = CompletableFuture.supplyAsync(() -> store.execute("key-1", List.of("Emma"), () -> {
+            runs.incrementAndGet();
+            return "raced";
+        }));
+
+        assertThrows(Exception.class, () -> duplicate.get(100, TimeUnit.MILLISECONDS));
+        release.countDown();
+
+        assertEquals("saved", first.get(5, TimeUnit.SECONDS));
+        assertEquals("saved", duplicate.get(5, TimeUnit.SECONDS));
+        assertEquals(1, runs.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
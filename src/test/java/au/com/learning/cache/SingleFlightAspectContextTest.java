@@ -0,0 +1,64 @@
+package au.com.learning.cache;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.service.AuthorService;
+import au.com.learning.service.BookServiceIF;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJPrecedenceInformation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.interceptor.TransactionInterceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+class SingleFlightAspectContextTest {
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private BookServiceIF bookService;
+
+    @Test
+    void getAuthorsByName_runsThroughTheAspect() {
+        List<AuthorResponseDTO> authors = authorService.getAuthorsByName("Liam");
+
+        assertFalse(authors.isEmpty());
+        assertSingleFlightRunsBeforeTransaction(authorService);
+    }
+
+    @Test
+    void getFilteredBooks_runsThroughTheAspect() {
+        Map<String, List<BookResponseDTO>> books = bookService.getFilteredBooks("Liam", "Fiction", null);
+
+        assertTrue(books.containsKey("Fiction"));
+        assertSingleFlightRunsBeforeTransaction(bookService);
+    }
+
+    private static void assertSingleFlightRunsBeforeTransaction(Object service) {
+        List<Advisor> advisors = List.of(assertInstanceOf(Advised.class, service).getAdvisors());
+        int singleFlight = indexOf(advisors, advisor -> advisor instanceof AspectJPrecedenceInformation aspect
+                && aspect.getAspectName().equals("singleFlightAspect"));
+        int transaction = indexOf(advisors, advisor -> advisor.getAdvice() instanceof TransactionInterceptor);
+
+        assertTrue(singleFlight >= 1, "single flight advice must run after ExposeInvocationInterceptor");
+        assertTrue(singleFlight < transaction, "single flight advice must run outside the transaction");
+    }
+
+    private static int indexOf(List<Advisor> advisors, Predicate<Advisor> match) {
+        for (int i = 0; i < advisors.size(); i++) {
+            if (match.test(advisors.get(i))) {
+                return i;
+            }
+        }
+        return fail("advisor not found in " + advisors);
+    }
+}
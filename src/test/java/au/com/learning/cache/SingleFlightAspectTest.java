@@ -0,0 +1,108 @@
+package au.com.learning.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private Search target;
+    private Search search;
+
+    @BeforeEach
+    void setup() {
+        target = new Search();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(meterRegistry));
+        search = factory.getProxy();
+    }
+
+    @Test
+    void concurrentIdenticalCalls_shareOneExecution() throws Exception {
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> search.find("Jane"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(() -> search.find("jane"));
+        waitForCoalescedCall();
+
+        target.release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, target.calls.get());
+    }
+
+    @Test
+    void concurrentCalls_withDifferentArguments_runSeparately() throws Exception {
+        target.release.countDown();
+
+        assertEquals(List.of("jane"), search.find("Jane"));
+        assertEquals(List.of("john"), search.find("John"));
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void completedCall_isNotReused() {
+        target.release.countDown();
+
+        search.find("Jane");
+        search.find("Jane");
+
+        assertEquals(2, target.calls.get());
+    }
+
+    @Test
+    void waitingCall_getsTheSameException() throws Exception {
+        CompletableFuture<List<String>> first = CompletableFuture.supplyAsync(() -> search.find("fail"));
+        assertTrue(target.started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<List<String>> second = CompletableFuture.supplyAsync(() -> search.find("fail"));
+        waitForCoalescedCall();
+
+        target.release.countDown();
+
+        ExecutionException firstError = assertThrows(ExecutionException.class, () -> first.get(5, TimeUnit.SECONDS));
+        ExecutionException secondError = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalArgumentException.class, firstError.getCause());
+        assertSame(firstError.getCause(), secondError.getCause());
+        assertEquals(1, target.calls.get());
+    }
+
+    private void waitForCoalescedCall() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.find("library.single.flight.coalesced").counter() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertNotNull(meterRegistry.find("library.single.flight.coalesced").counter());
+    }
+
+    public static class Search {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @SingleFlight(ignoreCase = true)
+        public List<String> find(String name) {
+            calls.incrementAndGet();
+            started.countDown();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (name.equals("fail")) {
+                throw new IllegalArgumentException("Author not found");
+            }
+            return List.of(name.toLowerCase());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package au.com.learning.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class H2SnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void prepare_buildsSnapshotOnce_andHandsOutCopies() throws Exception {
+        String firstUrl = H2Snapshot.prepare(directory, "librarydb", true, "schema.sql", "data.sql");
+        assertEquals(60, count(firstUrl, "author"));
+
+        Path snapshot;
+        try (var files = Files.list(directory)) {
+            snapshot = files.filter(path -> !path.getFileName().toString().startsWith("librarydb-run"))
+                    .filter(path -> path.getFileName().toString().endsWith(H2Snapshot.FILE_SUFFIX))
+                    .findFirst()
+                    .orElseThrow();
+        }
+        FileTime builtAt = Files.getLastModifiedTime(snapshot);
+        execute(firstUrl, "DELETE FROM book");
+
+        String secondUrl = H2Snapshot.prepare(directory, "librarydb", true, "schema.sql", "data.sql");
+
+        assertEquals(builtAt, Files.getLastModifiedTime(snapshot));
+        assertTrue(count(secondUrl, "book") > 0);
+    }
+
+    @Test
+    void prepare_opensSnapshotItself_withoutCopy() {
+        String url = H2Snapshot.prepare(directory, "librarydb", false, "schema.sql", "data.sql");
+
+        assertFalse(url.contains("librarydb-run"));
+        assertFalse(Files.exists(directory.resolve("librarydb-run" + H2Snapshot.FILE_SUFFIX)));
+    }
+
+    private static long count(String url, String table) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement();
+             ResultSet count = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            count.next();
+            return count.getLong(1);
+        }
+    }
+
+    private static void execute(String url, String sql) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package au.com.learning.controller;
+
+import au.com.learning.metrics.RequestStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthorControllerStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void searchAuthors_executesOneStatement_howeverManyAuthorsMatch() throws Exception {
+        RequestStatistics narrow = statisticsOf("/authors/search?name=Liam");
+        RequestStatistics broad = statisticsOf("/authors/search?name=a");
+
+        assertEquals(1, narrow.preparedStatements());
+        assertEquals(1, broad.preparedStatements());
+        assertTrue(broad.repeatedStatements(2).isEmpty());
+    }
+
+    private RequestStatistics statisticsOf(String uri) throws Exception {
+        MvcResult result = mockMvc.perform(get(uri)).andExpect(status().isOk()).andReturn();
+        RequestStatistics statistics = (RequestStatistics) result.getRequest().getAttribute(RequestStatistics.ATTRIBUTE);
+        assertNotNull(statistics);
+        return statistics;
+    }
+}
@@ -1,5 +1,6 @@
 package au.com.learning.controller;
 
+import au.com.learning.cache.CatalogVersion;
 import au.com.learning.dto.AuthorResponseDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.service.AuthorService;
@@ -8,10 +9,13 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -20,6 +24,12 @@ class AuthorControllerTest {
     @Mock
     private AuthorService authorService;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private WebRequest webRequest;
+
     @InjectMocks
     private AuthorController authorController;
 
@@ -31,15 +41,34 @@ class AuthorControllerTest {
                 new AuthorResponseDTO(2L, "Johnny", "Smith", "js@ex.com", null, null, List.of())
         );
 
+        when(catalogVersion.current()).thenReturn("catalog-1-0");
         when(authorService.getAuthorsByName(name)).thenReturn(expected);
 
-        List<AuthorResponseDTO> actual = authorController.searchAuthors(name);
+        List<AuthorResponseDTO> actual = authorController.searchAuthors(name, webRequest);
 
         assertEquals(expected, actual);
         verify(authorService, times(1)).getAuthorsByName(name);
         verifyNoMoreInteractions(authorService);
     }
 
+    @Test
+    void searchAuthors_returnsNull_whenCatalogUnchanged() {
+        when(catalogVersion.current()).thenReturn("catalog-1-0");
+        when(webRequest.checkNotModified("catalog-1-0")).thenReturn(true);
+
+        assertNull(authorController.searchAuthors("john", webRequest));
+    }
+
+    @Test
+    void searchAuthors_setsNoETag_whenLookupFails() {
+        when(catalogVersion.current()).thenReturn("catalog-1-0");
+        when(authorService.getAuthorsByName("nobody")).thenThrow(new IllegalArgumentException("Author not found"));
+
+        assertThrows(IllegalArgumentException.class, () -> authorController.searchAuthors("nobody", webRequest));
+
+        verifyNoInteractions(webRequest);
+    }
+
     @Test
     void updateAuthor_returnsDtoFromService() {
         Long id = 10L;
@@ -0,0 +1,45 @@
+package au.com.learning.controller;
+
+import au.com.learning.metrics.RequestStatistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookControllerStatementBudgetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void getBook_readsTheDatabaseOnlyOnCacheMiss_includingConditionalRequests() throws Exception {
+        MvcResult first = mockMvc.perform(get("/getBook/1")).andReturn();
+        assertEquals(200, first.getResponse().getStatus());
+        assertTrue(statisticsOf(first).preparedStatements() <= 1);
+
+        MvcResult warm = mockMvc.perform(get("/getBook/1")).andReturn();
+        assertEquals(0, statisticsOf(warm).preparedStatements());
+
+        String eTag = warm.getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+        RequestBuilder conditional = get("/getBook/1").header(HttpHeaders.IF_NONE_MATCH, eTag);
+        MvcResult notModified = mockMvc.perform(conditional).andReturn();
+        assertEquals(304, notModified.getResponse().getStatus());
+        assertEquals(0, statisticsOf(notModified).preparedStatements());
+    }
+
+    private RequestStatistics statisticsOf(MvcResult result) {
+        RequestStatistics statistics = (RequestStatistics) result.getRequest().getAttribute(RequestStatistics.ATTRIBUTE);
+        assertNotNull(statistics);
+        return statistics;
+    }
+}
@@ -1,20 +1,44 @@
 package au.com.learning.controller;
 
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.IdempotencyStore;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookBatchResponseDTO;
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookPageResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.dto.BookWriteStatusDTO;
+import au.com.learning.dto.FacetCountsDTO;
 import au.com.learning.entity.Book;
 import au.com.learning.service.BookService;
+import au.com.learning.service.BookWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,22 +47,112 @@ class BookControllerTest {
     @Mock
     private BookService bookService;
 
+    @Mock
+    private BookWriteBehind bookWriteBehind;
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private WebRequest webRequest;
+
     @InjectMocks
     private BookController bookController;
 
     @Test
-    void getAllBooks_returnsListFromService() {
-        List<BookResponseDTO> expected = List.of(
-                mock(BookResponseDTO.class),
-                mock(BookResponseDTO.class)
-        );
+    void getAllBooks_writesSnapshotBytes() {
+        CatalogSnapshot.Snapshot snapshot = new CatalogSnapshot.Snapshot("catalog-1-0", "[]".getBytes(), new byte[]{1});
+        when(bookService.getAllBooksSnapshot()).thenReturn(snapshot);
 
-        when(bookService.getAllBooks()).thenReturn(expected);
+        ResponseEntity<byte[]> response = bookController.getAllBooks(null, webRequest);
 
-        List<BookResponseDTO> actual = bookController.getAllBooks();
+        assertSame(snapshot.json(), response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        verify(webRequest, times(1)).checkNotModified("catalog-1-0");
+        verify(bookService, times(1)).getAllBooksSnapshot();
+        verifyNoMoreInteractions(bookService);
+    }
 
-        assertEquals(expected, actual);
-        verify(bookService, times(1)).getAllBooks();
+    @Test
+    void getAllBooks_writesGzippedSnapshot_whenClientAcceptsGzip() {
+        CatalogSnapshot.Snapshot snapshot = new CatalogSnapshot.Snapshot("catalog-1-0", "[]".getBytes(), new byte[]{1});
+        when(bookService.getAllBooksSnapshot()).thenReturn(snapshot);
+
+        ResponseEntity<byte[]> response = bookController.getAllBooks("deflate, gzip", webRequest);
+
+        assertSame(snapshot.gzip(), response.getBody());
+        assertEquals("gzip", response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), response.getHeaders().getVary());
+    }
+
+    @Test
+    void getAllBooks_returnsNull_whenCatalogUnchanged() {
+        CatalogSnapshot.Snapshot snapshot = new CatalogSnapshot.Snapshot("catalog-1-0", "[]".getBytes(), null);
+        when(bookService.getAllBooksSnapshot()).thenReturn(snapshot);
+        when(webRequest.checkNotModified("catalog-1-0")).thenReturn(true);
+
+        assertNull(bookController.getAllBooks("gzip", webRequest));
+    }
+
+    @Test
+    void acceptsGzip_honoursQualityZero() {
+        assertTrue(BookController.acceptsGzip("gzip, deflate, br"));
+        assertTrue(BookController.acceptsGzip("GZIP;q=0.5"));
+        assertFalse(BookController.acceptsGzip("gzip;q=0"));
+        assertFalse(BookController.acceptsGzip("deflate"));
+        assertFalse(BookController.acceptsGzip(null));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void streamAllBooks_writesOneJsonLinePerBook() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<BookResponseDTO> consumer = invocation.getArgument(0);
+            consumer.accept(new BookResponseDTO(1L, "First", "Fiction", null));
+            consumer.accept(new BookResponseDTO(2L, "Second", "Drama", null));
+            return null;
+        }).when(bookService).streamAllBooks(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = bookController.streamAllBooks(webRequest);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        response.getBody().writeTo(outputStream);
+
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], BookResponseDTO.class).id());
+        assertEquals("Second", objectMapper.readValue(lines[1], BookResponseDTO.class).title());
+    }
+
+    @Test
+    void streamAllBooks_raisesAsyncTimeoutForThisRequestOnly() throws Exception {
+        ReflectionTestUtils.setField(bookController, "exportTimeout", Duration.ofMinutes(10));
+        ServletWebRequest request = new ServletWebRequest(new MockHttpServletRequest(), new MockHttpServletResponse());
+        AsyncWebRequest asyncWebRequest = mock(AsyncWebRequest.class);
+
+        bookController.streamAllBooks(request);
+        WebAsyncUtils.getAsyncManager(request).getCallableInterceptor(BookController.EXPORT_TIMEOUT)
+                .beforeConcurrentHandling(asyncWebRequest, () -> null);
+
+        verify(asyncWebRequest, times(1)).setTimeout(600_000L);
+        assertNull(WebAsyncUtils.getAsyncManager(new ServletWebRequest(new MockHttpServletRequest()))
+                .getCallableInterceptor(BookController.EXPORT_TIMEOUT));
+    }
+
+    @Test
+    void getBooksPage_returnsPageFromService() {
+        BookPageResponseDTO expected = new BookPageResponseDTO(List.of(mock(BookResponseDTO.class)), 20L);
+
+        when(bookService.getBooksPage(10L, 5)).thenReturn(expected);
+
+        BookPageResponseDTO actual = bookController.getBooksPage(10L, 5);
+
+        assertSame(expected, actual);
+        verify(bookService, times(1)).getBooksPage(10L, 5);
         verifyNoMoreInteractions(bookService);
     }
 
@@ -49,11 +163,52 @@ class BookControllerTest {
 
         when(bookService.saveBook(book)).thenReturn(expected);
 
-        AuthorResponseDTO actual = bookController.addBook(book);
+        AuthorResponseDTO actual = bookController.addBook(null, book);
 
         assertEquals(expected, actual);
         verify(bookService, times(1)).saveBook(book);
         verifyNoMoreInteractions(bookService);
+        verifyNoInteractions(idempotencyStore);
+    }
+
+    @Test
+    void addBook_withIdempotencyKey_runsThroughIdempotencyStore() {
+        Book book = new Book();
+        book.setTitle("Emma");
+        AuthorResponseDTO expected = mock(AuthorResponseDTO.class);
+        when(idempotencyStore.execute(eq("key-1"), eq(BookController.fingerprint(book)), any())).thenReturn(expected);
+
+        AuthorResponseDTO actual = bookController.addBook("key-1", book);
+
+        assertSame(expected, actual);
+        verifyNoInteractions(bookService);
+    }
+
+    @Test
+    void addBooks_returnsPerItemResultsFromService() {
+        List<Book> books = List.of(new Book(), new Book());
+        List<BookIngestResultDTO> expected = List.of(mock(BookIngestResultDTO.class), mock(BookIngestResultDTO.class));
+
+        when(bookService.saveBooks(books)).thenReturn(expected);
+
+        List<BookIngestResultDTO> actual = bookController.addBooks(books);
+
+        assertEquals(expected, actual);
+        verify(bookService, times(1)).saveBooks(books);
+        verifyNoMoreInteractions(bookService);
+    }
+
+    @Test
+    void addBookAsync_returnsAcceptedWithTrackingStatus() {
+        Book book = new Book();
+        BookWriteStatusDTO pending = BookWriteStatusDTO.pending("abc");
+        when(bookWriteBehind.submit(book)).thenReturn(pending);
+
+        ResponseEntity<BookWriteStatusDTO> response = bookController.addBookAsync(book);
+
+        assertEquals(202, response.getStatusCode().value());
+        assertSame(pending, response.getBody());
+        verifyNoInteractions(bookService);
     }
 
     @Test
@@ -62,25 +217,71 @@ class BookControllerTest {
         BookResponseDTO dto2 = mock(BookResponseDTO.class);
         Map<String, List<BookResponseDTO>> expected = Map.of("Novel", List.of(dto1, dto2));
 
-        when(bookService.getFilteredBooks("Jane", "Novel")).thenReturn(expected);
+        when(bookService.getFilteredBooks("Jane", "Novel", 10)).thenReturn(expected);
 
-        Map<String, List<BookResponseDTO>> actual = bookController.filterBooks("Jane", "Novel");
+        Map<String, List<BookResponseDTO>> actual = bookController.filterBooks("Jane", "Novel", 10);
 
         assertEquals(expected, actual);
-        verify(bookService, times(1)).getFilteredBooks("Jane", "Novel");
+        verify(bookService, times(1)).getFilteredBooks("Jane", "Novel", 10);
+        verifyNoMoreInteractions(bookService);
+    }
+
+    @Test
+    void getFacets_returnsCountsFromService() {
+        FacetCountsDTO expected = new FacetCountsDTO(Map.of("Novel", 2L), List.of());
+        when(bookService.getFacets()).thenReturn(expected);
+
+        FacetCountsDTO actual = bookController.getFacets();
+
+        assertSame(expected, actual);
+        verify(bookService, times(1)).getFacets();
+        verifyNoMoreInteractions(bookService);
+    }
+
+    @Test
+    void getBooks_returnsBatchFromService() {
+        BookBatchResponseDTO expected = new BookBatchResponseDTO(List.of(mock(BookResponseDTO.class)), List.of(9L));
+        when(bookService.getBooksByIds(List.of(1L, 9L))).thenReturn(expected);
+
+        BookBatchResponseDTO actual = bookController.getBooks(List.of(1L, 9L));
+
+        assertSame(expected, actual);
+        verify(bookService, times(1)).getBooksByIds(List.of(1L, 9L));
         verifyNoMoreInteractions(bookService);
     }
 
     @Test
     void getBookById_returnsDtoFromService() {
-        BookResponseDTO expected = mock(BookResponseDTO.class);
+        BookResponseDTO expected = book(100L, 3L, 7L);
         when(bookService.getBookById(100L)).thenReturn(expected);
 
-        BookResponseDTO actual = bookController.getBookById(100L);
+        BookResponseDTO actual = bookController.getBookById(100L, webRequest);
 
         assertSame(expected, actual);
+        verify(webRequest, times(1)).checkNotModified("book-100-3-7");
         verify(bookService, times(1)).getBookById(100L);
         verifyNoMoreInteractions(bookService);
     }
-}
 
+    @Test
+    void getBookById_returnsNull_whenETagMatches() {
+        when(bookService.getBookById(100L)).thenReturn(book(100L, 0L, 0L));
+        when(webRequest.checkNotModified("book-100-0-0")).thenReturn(true);
+
+        assertNull(bookController.getBookById(100L, webRequest));
+    }
+
+    @Test
+    void getBookById_skipsConditionalCheck_whenBookNotFound() {
+        when(bookService.getBookById(999L)).thenThrow(new IllegalArgumentException("Book not found with ID: 999"));
+
+        assertThrows(IllegalArgumentException.class, () -> bookController.getBookById(999L, webRequest));
+
+        verifyNoInteractions(webRequest);
+    }
+
+    private static BookResponseDTO book(Long id, Long version, Long authorVersion) {
+        AuthorResponseDTO author = new AuthorResponseDTO(5L, "Jane", "Austen", "jane@ex.com", null, null, null, authorVersion);
+        return new BookResponseDTO(id, "Emma", "Novel", author, version);
+    }
+}
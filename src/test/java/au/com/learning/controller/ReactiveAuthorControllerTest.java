@@ -0,0 +1,32 @@
+package au.com.learning.controller;
+
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.service.AuthorService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveAuthorControllerTest {
+
+    @Mock
+    private AuthorService authorService;
+
+    @Test
+    void searchAuthors_emitsEachAuthorFromService() {
+        ReactiveAuthorController controller = new ReactiveAuthorController(authorService, Schedulers.immediate());
+        AuthorResponseDTO john = new AuthorResponseDTO(1L, "John", "Doe", "john@ex.com", null, null, List.of());
+        AuthorResponseDTO johnny = new AuthorResponseDTO(2L, "Johnny", "Smith", "js@ex.com", null, null, List.of());
+        when(authorService.getAuthorsByName("john")).thenReturn(List.of(john, johnny));
+
+        StepVerifier.create(controller.searchAuthors("john")).expectNext(john, johnny).verifyComplete();
+        verify(authorService, times(1)).getAuthorsByName("john");
+    }
+}
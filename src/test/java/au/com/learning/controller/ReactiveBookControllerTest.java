@@ -0,0 +1,69 @@
+package au.com.learning.controller;
+
+import au.com.learning.dto.BookResponseDTO;
+import au.com.learning.service.BookService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReactiveBookControllerTest {
+
+    @Mock
+    private BookService bookService;
+
+    private ReactiveBookController reactiveBookController;
+
+    @BeforeEach
+    void setup() {
+        reactiveBookController = new ReactiveBookController(bookService, Schedulers.immediate());
+    }
+
+    @Test
+    void getBookById_defersServiceCallUntilSubscribed() {
+        BookResponseDTO expected = mock(BookResponseDTO.class);
+        when(bookService.getBookById(100L)).thenReturn(expected);
+
+        var result = reactiveBookController.getBookById(100L);
+        verifyNoInteractions(bookService);
+
+        StepVerifier.create(result).expectNext(expected).verifyComplete();
+        verify(bookService, times(1)).getBookById(100L);
+    }
+
+    @Test
+    void getAllBooks_emitsEachBook() {
+        BookResponseDTO dto1 = mock(BookResponseDTO.class);
+        BookResponseDTO dto2 = mock(BookResponseDTO.class);
+        when(bookService.getAllBooks()).thenReturn(List.of(dto1, dto2));
+
+        StepVerifier.create(reactiveBookController.getAllBooks()).expectNext(dto1, dto2).verifyComplete();
+    }
+
+    @Test
+    void filterBooks_propagatesServiceErrors() {
+        when(bookService.getFilteredBooks("Jane", " ", null))
+                .thenThrow(new IllegalArgumentException("Both 'author' and 'genre' parameters are required for filtering."));
+
+        StepVerifier.create(reactiveBookController.filterBooks("Jane", " ", null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+    }
+
+    @Test
+    void filterBooks_returnsGroupedMapFromService() {
+        Map<String, List<BookResponseDTO>> expected = Map.of("Novel", List.of(mock(BookResponseDTO.class)));
+        when(bookService.getFilteredBooks("Jane", "Novel", null)).thenReturn(expected);
+
+        StepVerifier.create(reactiveBookController.filterBooks("Jane", "Novel", null)).expectNext(expected).verifyComplete();
+    }
+}
@@ -0,0 +1,105 @@
+package au.com.learning.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestMetricsInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StatementBudgetProperties statementBudget = new StatementBudgetProperties();
+    private final RequestMetricsInterceptor interceptor = new RequestMetricsInterceptor(meterRegistry, statementBudget);
+
+    @AfterEach
+    void cleanup() {
+        RequestStatistics.end();
+    }
+
+    @Test
+    void afterCompletion_recordsHibernateWorkTaggedByEndpoint() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/authors/search");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/authors/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        RequestStatistics.statementExecuted(TimeUnit.MILLISECONDS.toNanos(2));
+        RequestStatistics.statementExecuted(TimeUnit.MILLISECONDS.toNanos(5));
+        RequestStatistics.entityLoaded();
+        RequestStatistics.entityLoaded();
+        RequestStatistics.entityLoaded();
+        RequestStatistics.cacheGet(true);
+        RequestStatistics.cacheGet(false);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertEquals(2, meterRegistry.get("library.request.statements").tag("uri", "/authors/search").summary().totalAmount());
+        assertEquals(3, meterRegistry.get("library.request.entity.loads").tag("method", "GET").summary().totalAmount());
+        assertEquals(5, meterRegistry.get("library.request.statements.slowest").timer().max(TimeUnit.MILLISECONDS));
+        assertEquals(7, meterRegistry.get("library.request.statements.time").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(1, meterRegistry.get("library.request.cache.gets").tag("result", "hit").counter().count());
+        assertEquals(1, meterRegistry.get("library.request.cache.gets").tag("result", "miss").counter().count());
+    }
+
+    @Test
+    void afterCompletion_flagsRequestsOverBudget_andRepeatedStatements() {
+        statementBudget.getEndpoints().put("/authors/search", 1);
+        statementBudget.setRepeatThreshold(3);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/authors/search");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/authors/search");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        new SqlStatementInspector().inspect("select a from author a");
+        for (int i = 0; i < 3; i++) {
+            new SqlStatementInspector().inspect("select b from book b where b.author_id=?");
+        }
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        RequestStatistics statistics = (RequestStatistics) request.getAttribute(RequestStatistics.ATTRIBUTE);
+        assertEquals(4, statistics.preparedStatements());
+        assertEquals(Map.of("select b from book b where b.author_id=?", 3), statistics.repeatedStatements(3));
+        assertEquals(1, meterRegistry.get("library.request.statements.over.budget").counter().count());
+        assertEquals(1, meterRegistry.get("library.request.statements.repeated").counter().count());
+    }
+
+    @Test
+    void afterCompletion_staysQuiet_withinBudget() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/getBook/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/getBook/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        new SqlStatementInspector().inspect("select b from book b where b.id=?");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertNull(meterRegistry.find("library.request.statements.over.budget").counter());
+        assertNull(meterRegistry.find("library.request.statements.repeated").counter());
+    }
+
+    @Test
+    void listenersIgnoreWork_outsideRequest() {
+        RequestStatistics.statementExecuted(1);
+        RequestStatistics.entityLoaded();
+
+        assertNull(RequestStatistics.end());
+    }
+
+    @Test
+    void afterConcurrentHandlingStarted_dropsRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/getAllBooks");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        assertTrue(meterRegistry.find("library.request.statements").summaries().isEmpty());
+    }
+}
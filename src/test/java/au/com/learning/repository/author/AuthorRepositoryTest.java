@@ -0,0 +1,57 @@
+package au.com.learning.repository.author;
+
+import au.com.learning.entity.Author;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// no test transaction: each lookup runs in its own session, as requests do, so the second-level cache is shared,
+// and findByEmail has to open its own transaction
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuthorRepositoryTest {
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @Test
+    void findByEmail_resolvesFromSecondLevelCache_onRepeatLookup() {
+        Optional<Author> first = authorRepository.findByEmail("liam.anderson@example.com");
+        assertTrue(first.isPresent());
+
+        statistics.clear();
+        Optional<Author> second = authorRepository.findByEmail("liam.anderson@example.com");
+
+        assertEquals(first.get().getId(), second.orElseThrow().getId());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertTrue(statistics.getSecondLevelCacheHitCount() > 0);
+    }
+
+    @Test
+    void findByEmail_returnsEmpty_forUnknownOrNullEmail() {
+        assertTrue(authorRepository.findByEmail("nobody@example.com").isEmpty());
+        assertTrue(authorRepository.findByEmail(null).isEmpty());
+    }
+}
@@ -0,0 +1,124 @@
+package au.com.learning.repository.book;
+
+import au.com.learning.repository.book.specification.BookSpecifications;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BookRepositoryTest {
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = testEntityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        testEntityManager.clear();
+        statistics.clear();
+    }
+
+    @Test
+    void findRows_selectsProjectionWithoutLoadingEntities() {
+        List<BookRow> rows = bookRepository.findRows(null);
+
+        assertEquals(bookRepository.count(), rows.size());
+        BookRow first = rows.get(0);
+        assertEquals(1L, first.id());
+        assertEquals("The Great Beyond", first.title());
+        assertEquals(1L, first.authorId());
+        assertEquals("liam.anderson@example.com", first.authorEmail());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void findRows_appliesSpecification() {
+        List<BookRow> rows = bookRepository.findRows(Specification.where(BookSpecifications.hasAuthorIn(List.of(1L)))
+                .and(BookSpecifications.hasGenre("fiction")));
+
+        assertFalse(rows.isEmpty());
+        rows.forEach(row -> {
+            assertEquals(1L, row.authorId());
+            assertEquals("fiction", row.genere().toLowerCase());
+        });
+    }
+
+    @Test
+    void findFirstRows_readsOneKeysetPage_withoutLoadingEntities() {
+        List<BookRow> rows = bookRepository.findFirstRows(BookSpecifications.hasIdGreaterThan(2L), 3);
+
+        assertEquals(List.of(3L, 4L, 5L), rows.stream().map(BookRow::id).toList());
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    void streamRowsCappedPerGenre_keepsLowestIdsOfEachGenre_inGenreOrder() {
+        List<Long> authorIds = LongStream.rangeClosed(1, 60).boxed().toList();
+        Map<String, List<Long>> expected = new TreeMap<>();
+        bookRepository.findRows(Specification.where(BookSpecifications.hasAuthorIn(authorIds))
+                        .and(BookSpecifications.hasGenre("fiction")))
+                .forEach(row -> expected.computeIfAbsent(row.genere(), key -> new ArrayList<>()).add(row.id()));
+        expected.replaceAll((genre, ids) -> ids.stream().limit(2).toList());
+        assertFalse(expected.isEmpty());
+
+        List<BookRow> rows;
+        try (Stream<BookRow> stream = bookRepository.streamRowsCappedPerGenre(authorIds, "FICTION", 2)) {
+            rows = stream.toList();
+        }
+
+        assertEquals(expected.values().stream().flatMap(List::stream).toList(), rows.stream().map(BookRow::id).toList());
+        assertNotNull(rows.get(0).authorEmail());
+        assertNotNull(rows.get(0).version());
+    }
+
+    @Test
+    void countByAuthorAndGenre_countsEveryBookOnce_withoutLoadingEntities() {
+        List<FacetCount> counts = bookRepository.countByAuthorAndGenre();
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(bookRepository.count(), counts.stream().mapToLong(FacetCount::books).sum());
+    }
+
+    @Test
+    void genreFilter_usesGenreKeyIndex() {
+        String plan = (String) testEntityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN SELECT b.id FROM book b WHERE b.genre_key = 'fiction'")
+                .getSingleResult();
+
+        assertTrue(plan.toUpperCase().contains("IDX_BOOK_GENRE_KEY"), plan);
+    }
+
+    @Test
+    void genreKey_isLowercaseOfGenre() {
+        rowsForGenre("FICTION").forEach(row -> assertEquals("Fiction", row.genere()));
+    }
+
+    private List<BookRow> rowsForGenre(String genre) {
+        List<BookRow> rows = bookRepository.findRows(BookSpecifications.hasGenre(genre));
+        assertFalse(rows.isEmpty());
+        return rows;
+    }
+}
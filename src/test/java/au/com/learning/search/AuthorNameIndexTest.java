@@ -0,0 +1,83 @@
+package au.com.learning.search;
+
+import au.com.learning.entity.Author;
+import au.com.learning.repository.author.AuthorRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AuthorNameIndexTest {
+
+    private AuthorNameIndex authorNameIndex;
+
+    @BeforeEach
+    void setup() {
+        AuthorRepository authorRepository = mock(AuthorRepository.class);
+        when(authorRepository.findAll()).thenReturn(List.of(
+                author(1L, "Liam", "Anderson"),
+                author(2L, "Olivia", "Brown"),
+                author(3L, "Noah", "Clark"),
+                author(4L, "William", "Irwin")
+        ));
+        authorNameIndex = new AuthorNameIndex(authorRepository);
+        authorNameIndex.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void findAuthorIds_matchesSubstringOfFirstOrLastNameIgnoringCase() {
+        assertEquals(List.of(1L, 4L), authorNameIndex.findAuthorIds("LIAM"));
+        assertEquals(List.of(2L), authorNameIndex.findAuthorIds("rown"));
+        assertEquals(List.of(1L), authorNameIndex.findAuthorIds("anderson"));
+    }
+
+    @Test
+    void findAuthorIds_rejectsCandidatesWhoseTrigramsAreNotContiguous() {
+        // "liar" shares the trigram "lia" with Liam and William, but neither name contains it
+        assertTrue(authorNameIndex.findAuthorIds("liar").isEmpty());
+    }
+
+    @Test
+    void findAuthorIds_emptyOrBlankName_matchesLikeTheSqlQueryDid() {
+        assertEquals(List.of(1L, 2L, 3L, 4L), authorNameIndex.findAuthorIds(""));
+        assertTrue(authorNameIndex.findAuthorIds(" ").isEmpty());
+        assertTrue(authorNameIndex.findAuthorIds(null).isEmpty());
+    }
+
+    @Test
+    void findAuthorIds_handlesQueriesShorterThanATrigram() {
+        assertEquals(List.of(3L), authorNameIndex.findAuthorIds("cl"));
+        assertEquals(List.of(1L, 2L, 3L, 4L), authorNameIndex.findAuthorIds("a"));
+        assertTrue(authorNameIndex.findAuthorIds(" ").isEmpty());
+    }
+
+    @Test
+    void findAuthorIds_refusesQueriesMatchingTooManyAuthors() {
+        for (long id = 100; id < 100 + AuthorNameIndex.MAX_MATCHES; id++) {
+            authorNameIndex.index(author(id, "Jane", "Doe"));
+        }
+
+        assertEquals(AuthorNameIndex.MAX_MATCHES, authorNameIndex.findAuthorIds("jane").size());
+        assertThrows(IllegalArgumentException.class, () -> authorNameIndex.findAuthorIds("e"));
+        assertThrows(IllegalArgumentException.class, () -> authorNameIndex.findAuthorIds(""));
+    }
+
+    @Test
+    void indexAfterCommit_replacesPreviousNames() {
+        authorNameIndex.indexAfterCommit(author(3L, "Nora", "Roberts"));
+
+        assertTrue(authorNameIndex.findAuthorIds("clark").isEmpty());
+        assertEquals(List.of(3L), authorNameIndex.findAuthorIds("robert"));
+    }
+
+    private Author author(Long id, String firstName, String lastName) {
+        Author author = new Author();
+        author.setId(id);
+        author.setFirstName(firstName);
+        author.setLastName(lastName);
+        return author;
+    }
+}
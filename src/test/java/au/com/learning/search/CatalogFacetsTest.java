@@ -0,0 +1,68 @@
+package au.com.learning.search;
+
+import au.com.learning.dto.AuthorFacetDTO;
+import au.com.learning.dto.FacetCountsDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.FacetCount;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogFacetsTest {
+
+    private BookRepository bookRepository;
+    private CatalogFacets catalogFacets;
+
+    @BeforeEach
+    void setup() {
+        bookRepository = mock(BookRepository.class);
+        when(bookRepository.countByAuthorAndGenre()).thenReturn(List.of(
+                new FacetCount(1L, "Liam", "Anderson", "Fiction", 1L),
+                new FacetCount(1L, "Liam", "Anderson", "Drama", 1L),
+                new FacetCount(2L, "Olivia", "Brown", "Fiction", 1L)
+        ));
+        catalogFacets = new CatalogFacets(bookRepository);
+        catalogFacets.afterSingletonsInstantiated();
+    }
+
+    @Test
+    void snapshot_countsPerGenreAuthorAndAuthorGenre() {
+        FacetCountsDTO facets = catalogFacets.snapshot();
+
+        assertEquals(Map.of("Drama", 1L, "Fiction", 2L), facets.genres());
+        assertEquals(2, facets.authors().size());
+        AuthorFacetDTO liam = facets.authors().get(0);
+        assertEquals(1L, liam.id());
+        assertEquals(2L, liam.books());
+        assertEquals(Map.of("Drama", 1L, "Fiction", 1L), liam.genres());
+    }
+
+    @Test
+    void writes_updateCountsWithoutRescanning() {
+        Author olivia = new Author();
+        olivia.setId(2L);
+        olivia.setFirstName("Liv");
+        olivia.setLastName("Brown");
+        Book book = new Book();
+        book.setGenere("Drama");
+        book.setAuthor(olivia);
+
+        catalogFacets.bookAddedAfterCommit(book);
+        catalogFacets.authorUpdatedAfterCommit(olivia);
+
+        FacetCountsDTO facets = catalogFacets.snapshot();
+        assertEquals(2L, facets.genres().get("Drama"));
+        AuthorFacetDTO liv = facets.authors().get(1);
+        assertEquals("Liv", liv.firstName());
+        assertEquals(2L, liv.books());
+        verify(bookRepository, times(1)).countByAuthorAndGenre();
+        verifyNoMoreInteractions(bookRepository);
+    }
+}
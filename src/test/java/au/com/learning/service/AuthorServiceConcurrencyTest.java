@@ -0,0 +1,96 @@
+package au.com.learning.service;
+
+import au.com.learning.entity.Author;
+import au.com.learning.repository.author.AuthorRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.annotation.DirtiesContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "app.author-update.max-retries=10")
+@DirtiesContext
+class AuthorServiceConcurrencyTest {
+
+    private static final long AUTHOR_ID = 60L;
+    private static final int UPDATES_PER_WRITER = 25;
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private AuthorRepository authorRepository;
+
+    @Test
+    void concurrentUpdatesOfDifferentFields_loseNoUpdates() throws Exception {
+        long initialVersion = authorRepository.findById(AUTHOR_ID).orElseThrow().getVersion();
+
+        // each writer owns one field; all of them resend the unchanged first name the validator insists on
+        List<Writer> writers = List.of(
+                new Writer("lastName", Author::setLastName),
+                new Writer("email", (author, value) -> author.setEmail(value + "@example.com")),
+                new Writer("bio", Author::setBio),
+                new Writer("genere", Author::setGenere));
+
+        ExecutorService executor = Executors.newFixedThreadPool(writers.size());
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Writer writer : writers) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                writer.run();
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Author stored = authorRepository.findById(AUTHOR_ID).orElseThrow();
+        int successes = writers.stream().mapToInt(writer -> writer.successes).sum();
+        assertTrue(successes > 0);
+        assertEquals(initialVersion + successes, stored.getVersion());
+        assertEquals("Monica", stored.getFirstName());
+        assertEquals(writers.get(0).lastWritten, stored.getLastName());
+        assertEquals(writers.get(1).lastWritten + "@example.com", stored.getEmail());
+        assertEquals(writers.get(2).lastWritten, stored.getBio());
+        assertEquals(writers.get(3).lastWritten, stored.getGenere());
+    }
+
+    private final class Writer {
+        private final String field;
+        private final BiConsumer<Author, String> setter;
+        private int successes;
+        private String lastWritten;
+
+        private Writer(String field, BiConsumer<Author, String> setter) {
+            this.field = field;
+            this.setter = setter;
+        }
+
+        void run() {
+            for (int i = 0; i < UPDATES_PER_WRITER; i++) {
+                String value = field + "-" + i;
+                Author request = new Author();
+                request.setFirstName("Monica");
+                setter.accept(request, value);
+                try {
+                    authorService.updateAuthor(AUTHOR_ID, request);
+                    successes++;
+                    lastWritten = value;
+                } catch (OptimisticLockingFailureException e) {
+                    // retries exhausted: the update was rejected, not lost
+                }
+            }
+        }
+    }
+}
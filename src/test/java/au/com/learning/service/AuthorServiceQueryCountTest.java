@@ -0,0 +1,72 @@
+package au.com.learning.service;
+
+import au.com.learning.cache.BookCache;
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.CatalogVersion;
+import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.search.AuthorNameIndex;
+import au.com.learning.search.CatalogFacets;
+import au.com.learning.validator.AuthorValidator;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({AuthorService.class, AuthorValidator.class, BookCache.class, AuthorNameIndex.class, CatalogFacets.class,
+        CatalogVersion.class})
+class AuthorServiceQueryCountTest {
+
+    @Autowired
+    private AuthorService authorService;
+
+    @Autowired
+    private TestEntityManager testEntityManager;
+
+    // needs Jackson and a task executor, neither of which a JPA slice provides
+    @MockBean
+    private CatalogSnapshot catalogSnapshot;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setup() {
+        statistics = testEntityManager.getEntityManager()
+                .getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+    }
+
+    @Test
+    void getAuthorsByName_statementCountDoesNotGrowWithResultSize() {
+        List<AuthorResponseDTO> narrow = search("Liam");
+        long narrowCount = statistics.getPrepareStatementCount();
+
+        List<AuthorResponseDTO> broad = search("a");
+        long broadCount = statistics.getPrepareStatementCount();
+
+        assertTrue(broad.size() > narrow.size());
+        assertEquals(1, narrowCount);
+        assertEquals(narrowCount, broadCount);
+    }
+
+    private List<AuthorResponseDTO> search(String name) {
+        testEntityManager.clear();
+        statistics.clear();
+
+        List<AuthorResponseDTO> authors = authorService.getAuthorsByName(name);
+
+        assertFalse(authors.isEmpty());
+        authors.forEach(author -> assertNotNull(author.books()));
+        return authors;
+    }
+}
@@ -1,10 +1,16 @@
 package au.com.learning.service;
 
+import au.com.learning.cache.BookCache;
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.CatalogVersion;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookResponseDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.entity.Book;
 import au.com.learning.repository.author.AuthorRepository;
 import au.com.learning.repository.book.BookRepository;
+import au.com.learning.search.AuthorNameIndex;
+import au.com.learning.search.CatalogFacets;
 import au.com.learning.validator.AuthorValidator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -12,6 +18,10 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Collections;
 import java.util.List;
@@ -31,12 +41,33 @@ class AuthorServiceTest {
     @Mock
     private AuthorValidator authorValidator;
 
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private AuthorNameIndex authorNameIndex;
+
+    @Mock
+    private CatalogFacets catalogFacets;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     @InjectMocks
     private AuthorService authorService;
 
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
+        ReflectionTestUtils.setField(authorService, "maxUpdateRetries", 3);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
     }
 
     @Test
@@ -56,8 +87,8 @@ class AuthorServiceTest {
         b1.setAuthor(a1);
         a1.setBooks(Collections.singletonList(b1));
 
-        when(authorRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("jan", "jan"))
-                .thenReturn(List.of(a1));
+        when(authorNameIndex.findAuthorIds("jan")).thenReturn(List.of(1L));
+        when(authorRepository.findByIdInOrderByIdAsc(List.of(1L))).thenReturn(List.of(a1));
 
         List<AuthorResponseDTO> result = authorService.getAuthorsByName("jan");
 
@@ -76,22 +107,20 @@ class AuthorServiceTest {
         assertEquals("Pride and Prejudice", dto.books().get(0).title());
         assertEquals("Novel", dto.books().get(0).genere());
 
-        verify(authorRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("jan", "jan");
+        verify(authorNameIndex, times(1)).findAuthorIds("jan");
+        verify(authorRepository, times(1)).findByIdInOrderByIdAsc(List.of(1L));
         verifyNoMoreInteractions(authorRepository, bookRepository);
     }
 
     @Test
     void getAuthorsByName_emptyResult_returnsEmptyList() {
-        when(authorRepository.findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("x", "x"))
-                .thenReturn(Collections.emptyList());
+        when(authorNameIndex.findAuthorIds("x")).thenReturn(Collections.emptyList());
 
 
         RuntimeException ex = assertThrows(RuntimeException.class, () -> authorService.getAuthorsByName("x"));
         assertTrue(ex.getMessage().toLowerCase().contains("author"));
-        verify(authorRepository, times(1))
-                .findByFirstNameContainingIgnoreCaseOrLastNameContainingIgnoreCase("x", "x");
-        verifyNoMoreInteractions(authorRepository, bookRepository);
+        verify(authorNameIndex, times(1)).findAuthorIds("x");
+        verifyNoInteractions(authorRepository, bookRepository);
     }
 
     @Test
@@ -115,8 +144,8 @@ class AuthorServiceTest {
         update.setBooks(Collections.emptyList());
 
         when(authorRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(authorRepository.existsByEmailAndIdNot("new@test.com", id)).thenReturn(false);
-        when(authorRepository.save(any(Author.class))).thenAnswer(inv -> inv.getArgument(0));
+        when(authorRepository.findByEmail("new@test.com")).thenReturn(Optional.empty());
+        when(authorRepository.saveAndFlush(any(Author.class))).thenAnswer(inv -> inv.getArgument(0));
 
         AuthorResponseDTO dto = authorService.updateAuthor(id, update);
 
@@ -130,14 +159,121 @@ class AuthorServiceTest {
         assertNotNull(dto.books());
         assertTrue(dto.books().isEmpty());
 
+        verify(authorNameIndex, times(1)).indexAfterCommit(existing);
+        verify(catalogFacets, times(1)).authorUpdatedAfterCommit(existing);
+        verify(catalogVersion, times(1)).bumpAfterCommit();
+        verify(catalogSnapshot, times(1)).rebuildAfterCommit();
+
         ArgumentCaptor<Author> captor = ArgumentCaptor.forClass(Author.class);
-        verify(authorRepository).save(captor.capture());
+        verify(authorRepository).saveAndFlush(captor.capture());
         Author saved = captor.getValue();
         assertEquals("New", saved.getFirstName());
         assertEquals("Name", saved.getLastName());
         assertEquals("new@test.com", saved.getEmail());
     }
 
+    @Test
+    void updateAuthor_retries_whenConcurrentUpdateTouchedOtherFields() {
+        long id = 5L;
+        Author firstRead = author(id, "Old", "Old bio", 0L);
+        Author secondRead = author(id, "Old", "Other bio", 1L);
+
+        Author update = new Author();
+        update.setFirstName("New");
+
+        when(authorRepository.findById(id)).thenReturn(Optional.of(firstRead), Optional.of(secondRead));
+        when(authorRepository.saveAndFlush(any(Author.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Author.class, id))
+                .thenAnswer(inv -> inv.getArgument(0));
+
+        AuthorResponseDTO dto = authorService.updateAuthor(id, update);
+
+        assertEquals("New", dto.firstName());
+        assertEquals("Other bio", dto.bio());
+        assertEquals(1L, dto.version());
+        verify(authorRepository, times(2)).saveAndFlush(any(Author.class));
+    }
+
+    @Test
+    void updateAuthor_reportsConflict_whenConcurrentUpdateTouchedSameField() {
+        long id = 5L;
+        Author firstRead = author(id, "Old", "Old bio", 0L);
+        Author secondRead = author(id, "Other", "Old bio", 1L);
+
+        Author update = new Author();
+        update.setFirstName("New");
+
+        when(authorRepository.findById(id)).thenReturn(Optional.of(firstRead), Optional.of(secondRead));
+        when(authorRepository.saveAndFlush(any(Author.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Author.class, id));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> authorService.updateAuthor(id, update));
+
+        verify(authorRepository, times(2)).findById(id);
+        verify(authorRepository, times(1)).saveAndFlush(any(Author.class));
+        verifyNoInteractions(bookCache, catalogVersion);
+    }
+
+    @Test
+    void updateAuthor_stopsRetrying_afterMaxRetries() {
+        long id = 5L;
+        when(authorRepository.findById(id)).thenAnswer(inv -> Optional.of(author(id, "Old", "Old bio", 0L)));
+        when(authorRepository.saveAndFlush(any(Author.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Author.class, id));
+
+        Author update = new Author();
+        update.setFirstName("New");
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> authorService.updateAuthor(id, update));
+
+        verify(authorRepository, times(4)).saveAndFlush(any(Author.class));
+    }
+
+    @Test
+    void updateAuthor_failsFast_whenRequestVersionIsStale() {
+        long id = 5L;
+        when(authorRepository.findById(id)).thenReturn(Optional.of(author(id, "Old", "Old bio", 2L)));
+
+        Author update = new Author();
+        update.setFirstName("New");
+        update.setVersion(1L);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> authorService.updateAuthor(id, update));
+
+        verify(authorRepository, times(1)).findById(id);
+        verify(authorRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(authorValidator);
+    }
+
+    @Test
+    void updateAuthor_replacesCachedBooksOfTheAuthor() {
+        long id = 7L;
+        Author existing = new Author();
+        existing.setId(id);
+        existing.setFirstName("Old");
+        existing.setLastName("Name");
+        existing.setEmail("old@test.com");
+
+        Book b1 = new Book();
+        b1.setId(70L);
+        b1.setAuthor(existing);
+        Book b2 = new Book();
+        b2.setId(71L);
+        b2.setAuthor(existing);
+        existing.setBooks(List.of(b1, b2));
+
+        Author update = new Author();
+        update.setFirstName("New");
+
+        when(authorRepository.findById(id)).thenReturn(Optional.of(existing));
+        when(authorRepository.saveAndFlush(any(Author.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        authorService.updateAuthor(id, update);
+
+        verify(bookCache, times(1)).putAfterCommit(argThat(books -> books.stream().map(BookResponseDTO::id).toList().equals(List.of(70L, 71L))
+                && books.stream().allMatch(book -> "New".equals(book.author().firstName()))));
+    }
+
     @Test
     void updateAuthor_throwsWhenEmailAlreadyInUse() {
         long id = 3L;
@@ -154,7 +290,7 @@ class AuthorServiceTest {
         update.setEmail("dup@test.com");
 
         when(authorRepository.findById(id)).thenReturn(Optional.of(existing));
-        when(authorRepository.existsByEmailAndIdNot("dup@test.com", id)).thenReturn(true);
+        when(authorRepository.findByEmail("dup@test.com")).thenReturn(Optional.of(new Author()));
 
 
         doThrow(new IllegalArgumentException("Author email is already in use"))
@@ -166,7 +302,8 @@ class AuthorServiceTest {
         assertTrue(ex.getMessage().toLowerCase().contains("email"));
         verify(authorRepository, times(1)).findById(id);
         verify(authorValidator, times(1)).validateForUpdate(id, update, existing);
-        verify(authorRepository, never()).save(any());
+        verify(authorRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookCache);
     }
 
     @Test
@@ -179,7 +316,8 @@ class AuthorServiceTest {
 
         assertTrue(ex.getMessage().toLowerCase().contains("not found"));
         verify(authorRepository, times(1)).findById(id);
-        verify(authorRepository, never()).save(any());
+        verify(authorRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookCache);
     }
 
     @Test
@@ -208,7 +346,19 @@ class AuthorServiceTest {
         assertTrue(ex.getMessage().toLowerCase().contains("invalid"));
         verify(authorRepository, times(1)).findById(id);
         verify(authorValidator, times(1)).validateForUpdate(id, badUpdate, existing);
-        verify(authorRepository, never()).save(any());
+        verify(authorRepository, never()).saveAndFlush(any());
+        verifyNoInteractions(bookCache);
     }
-}
 
+    private static Author author(long id, String firstName, String bio, Long version) {
+        Author author = new Author();
+        author.setId(id);
+        author.setFirstName(firstName);
+        author.setLastName("Name");
+        author.setEmail("author@test.com");
+        author.setBio(bio);
+        author.setVersion(version);
+        author.setBooks(Collections.emptyList());
+        return author;
+    }
+}
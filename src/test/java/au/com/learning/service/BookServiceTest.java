@@ -1,20 +1,35 @@
 package au.com.learning.service;
 
+import au.com.learning.cache.BookCache;
+import au.com.learning.cache.CatalogSnapshot;
+import au.com.learning.cache.CatalogVersion;
 import au.com.learning.dto.AuthorResponseDTO;
+import au.com.learning.dto.BookBatchResponseDTO;
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookPageResponseDTO;
 import au.com.learning.dto.BookResponseDTO;
 import au.com.learning.entity.Author;
 import au.com.learning.entity.Book;
 import au.com.learning.repository.author.AuthorRepository;
+import au.com.learning.repository.book.BookKey;
 import au.com.learning.repository.book.BookRepository;
+import au.com.learning.repository.book.BookRow;
+import au.com.learning.search.AuthorNameIndex;
+import au.com.learning.search.CatalogFacets;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.sql.SQLException;
 import java.util.*;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -28,6 +43,21 @@ class BookServiceTest {
     @Mock
     private AuthorRepository authorRepository;
 
+    @Mock
+    private BookCache bookCache;
+
+    @Mock
+    private AuthorNameIndex authorNameIndex;
+
+    @Mock
+    private CatalogFacets catalogFacets;
+
+    @Mock
+    private CatalogVersion catalogVersion;
+
+    @Mock
+    private CatalogSnapshot catalogSnapshot;
+
     @InjectMocks
     private BookService bookService;
 
@@ -123,10 +153,7 @@ class BookServiceTest {
     void saveBook_usesExistingAuthor_whenEmailExists() {
         when(authorRepository.findByEmail(existingAuthor.getEmail()))
                 .thenReturn(Optional.of(existingAuthor));
-        when(bookRepository.existsByTitleAndAuthorEmail(
-                requestBook.getTitle(), existingAuthor.getEmail()))
-                .thenReturn(false);
-        when(bookRepository.save(requestBook))
+        when(bookRepository.saveAndFlush(requestBook))
                 .thenAnswer(invocation -> {
                     Book b = invocation.getArgument(0);
                     b.setId(10L);
@@ -140,7 +167,10 @@ class BookServiceTest {
         verify(authorRepository, times(1))
                 .findByEmail(existingAuthor.getEmail());
         verify(authorRepository, never()).save(any());
-        verify(bookRepository, times(1)).save(requestBook);
+        verify(bookRepository, times(1)).saveAndFlush(requestBook);
+        verify(catalogFacets).bookAddedAfterCommit(requestBook);
+        verify(catalogVersion).bumpAfterCommit();
+        verify(catalogSnapshot).rebuildAfterCommit();
     }
 
     @Test
@@ -163,10 +193,7 @@ class BookServiceTest {
                     a.setId(2L);
                     return a;
                 });
-        when(bookRepository.existsByTitleAndAuthorEmail(
-                newBook.getTitle(), newAuthor.getEmail()))
-                .thenReturn(false);
-        when(bookRepository.save(newBook))
+        when(bookRepository.saveAndFlush(newBook))
                 .thenAnswer(invocation -> {
                     Book b = invocation.getArgument(0);
                     b.setId(20L);
@@ -178,7 +205,8 @@ class BookServiceTest {
         assertNotNull(response);
         assertEquals(2L, response.id());
         verify(authorRepository).save(newAuthor);
-        verify(bookRepository).save(newBook);
+        verify(authorNameIndex).indexAfterCommit(newAuthor);
+        verify(bookRepository).saveAndFlush(newBook);
     }
 
 
@@ -186,35 +214,37 @@ class BookServiceTest {
     void saveBook_throwsWhenDuplicateBookExists() {
         when(authorRepository.findByEmail(existingAuthor.getEmail()))
                 .thenReturn(Optional.of(existingAuthor));
-        when(bookRepository.existsByTitleAndAuthorEmail(
-                requestBook.getTitle(), existingAuthor.getEmail()))
-                .thenReturn(true);
+        when(bookRepository.saveAndFlush(requestBook))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("Unique index or primary key violation: \"PUBLIC.UK_BOOK_TITLE_AUTHOR_INDEX_1 ON PUBLIC.BOOK(TITLE, AUTHOR_ID)\"")));
 
-        assertThrows(IllegalArgumentException.class,
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> bookService.saveBook(requestBook));
 
-        verify(bookRepository, never()).save(any());
+        assertEquals(BookService.DUPLICATE_BOOK_MESSAGE, ex.getMessage());
+        verifyNoInteractions(bookCache, catalogFacets, catalogVersion, catalogSnapshot);
+    }
+
+    @Test
+    void saveBook_rethrowsOtherIntegrityViolations() {
+        when(authorRepository.findByEmail(existingAuthor.getEmail()))
+                .thenReturn(Optional.of(existingAuthor));
+        when(bookRepository.saveAndFlush(requestBook))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("NULL not allowed for column \"TITLE\"")));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> bookService.saveBook(requestBook));
     }
 
 
     @Test
     void getAllBooks_returnsMappedBookResponseDTOList() {
 
-        Author author = new Author();
-        author.setId(5L);
-        author.setFirstName("Jane");
-        author.setLastName("Austen");
-        author.setEmail("jane.austen@test.com");
-        author.setBio("Bio");
-        author.setGenere("Classic");
-
-        Book book = new Book();
-        book.setId(100L);
-        book.setTitle("Pride and Prejudice");
-        book.setGenere("Novel");
-        book.setAuthor(author);
+        BookRow row = new BookRow(100L, "Pride and Prejudice", "Novel",
+                5L, "Jane", "Austen", "jane.austen@test.com", "Bio", "Classic", 0L, 0L);
 
-        when(bookRepository.findAll()).thenReturn(Collections.singletonList(book));
+        when(bookRepository.findRows(null)).thenReturn(Collections.singletonList(row));
 
 
         var result = bookService.getAllBooks();
@@ -237,7 +267,7 @@ class BookServiceTest {
         assertEquals("Bio", authorDto.bio());
         assertEquals("Classic", authorDto.genere());
 
-        verify(bookRepository, times(1)).findAll();
+        verify(bookRepository, times(1)).findRows(null);
         verifyNoMoreInteractions(bookRepository);
     }
 
@@ -246,10 +276,12 @@ class BookServiceTest {
     @Test
     void getFilteredBooks_authorAndGenreFilter_returnsMatchingGrouping() {
 
-        List<Book> repoResult = Arrays.asList(book1);
-        when(bookRepository.findAll(nullable(Specification.class))).thenReturn(repoResult);
+        List<BookRow> repoResult = Arrays.asList(new BookRow(100L, "Pride and Prejudice", "Novel",
+                5L, "Jane", "Austen", "jane.austen@test.com", "Bio", "Classic", 0L, 0L));
+        when(authorNameIndex.findAuthorIds("Jane")).thenReturn(List.of(5L));
+        when(bookRepository.streamRows(nullable(Specification.class), eq(Sort.by("genere", "id")))).thenReturn(repoResult.stream());
 
-        Map<String, List<BookResponseDTO>> result = bookService.getFilteredBooks("Jane", "Novel");
+        Map<String, List<BookResponseDTO>> result = bookService.getFilteredBooks("Jane", "Novel", null);
 
         assertNotNull(result);
         assertEquals(1, result.size());
@@ -263,7 +295,41 @@ class BookServiceTest {
         assertNotNull(dto.author());
         assertEquals("Jane", dto.author().firstName());
 
-        verify(bookRepository, times(1)).findAll(nullable(Specification.class));
+        verify(bookRepository, times(1)).streamRows(nullable(Specification.class), eq(Sort.by("genere", "id")));
+    }
+
+    @Test
+    void getFilteredBooks_pushesPerGenreCapIntoQuery_andKeepsGenreOrder() {
+        Stream<BookRow> rows = Stream.of(
+                new BookRow(1L, "A", "Drama", 5L, "Jane", "Austen", "jane.austen@test.com", null, null, 0L, 0L),
+                new BookRow(2L, "B", "Drama", 5L, "Jane", "Austen", "jane.austen@test.com", null, null, 0L, 0L),
+                new BookRow(4L, "D", "drama", 5L, "Jane", "Austen", "jane.austen@test.com", null, null, 0L, 0L));
+        when(authorNameIndex.findAuthorIds("Jane")).thenReturn(List.of(5L));
+        when(bookRepository.streamRowsCappedPerGenre(List.of(5L), "drama", 2)).thenReturn(rows);
+
+        Map<String, List<BookResponseDTO>> result = bookService.getFilteredBooks("Jane", "drama", 2);
+
+        verify(bookRepository, never()).streamRows(any(), any());
+
+        assertEquals(List.of("Drama", "drama"), new ArrayList<>(result.keySet()));
+        assertEquals(List.of(1L, 2L), result.get("Drama").stream().map(BookResponseDTO::id).toList());
+        assertEquals(List.of(4L), result.get("drama").stream().map(BookResponseDTO::id).toList());
+    }
+
+    @Test
+    void getFilteredBooks_throwsWhenLimitPerGenreIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getFilteredBooks("Jane", "Novel", 0));
+        verifyNoInteractions(bookRepository, authorNameIndex);
+    }
+
+    @Test
+    void getFilteredBooks_returnsEmptyMap_whenNoAuthorMatches() {
+        when(authorNameIndex.findAuthorIds("Nobody")).thenReturn(List.of());
+
+        Map<String, List<BookResponseDTO>> result = bookService.getFilteredBooks("Nobody", "Novel", null);
+
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -301,6 +367,17 @@ class BookServiceTest {
 
         verify(bookRepository, times(1)).findById(100L);
         verifyNoMoreInteractions(bookRepository);
+        verify(bookCache, times(1)).put(result);
+    }
+
+    @Test
+    void getBookById_returnsCachedBook_withoutDatabase() {
+        BookResponseDTO cached = new BookResponseDTO(100L, "Pride and Prejudice", "Novel", null, 0L);
+        when(bookCache.get(100L)).thenReturn(cached);
+
+        assertSame(cached, bookService.getBookById(100L));
+
+        verifyNoInteractions(bookRepository);
     }
 
     @Test
@@ -317,5 +394,174 @@ class BookServiceTest {
         verifyNoMoreInteractions(bookRepository);
     }
 
-}
+    @Test
+    @SuppressWarnings("unchecked")
+    void getBooksByIds_readsOnlyCacheMisses_andKeepsRequestOrder() {
+        BookResponseDTO cached = new BookResponseDTO(3L, "Cached", "Drama", null);
+        when(bookCache.getAll(Set.of(3L, 1L, 2L, 9L))).thenReturn(Map.of(3L, cached));
+        when(bookRepository.findRows(any(Specification.class))).thenReturn(List.of(
+                new BookRow(1L, "One", "Drama", 5L, "Jane", "Austen", "jane.austen@test.com", null, null, 0L, 0L),
+                new BookRow(2L, "Two", "Drama", 5L, "Jane", "Austen", "jane.austen@test.com", null, null, 0L, 0L)));
+
+        BookBatchResponseDTO result = bookService.getBooksByIds(List.of(3L, 1L, 9L, 2L, 1L));
+
+        assertEquals(List.of(3L, 1L, 2L), result.books().stream().map(BookResponseDTO::id).toList());
+        assertSame(cached, result.books().get(0));
+        assertEquals(List.of(9L), result.missingIds());
+        verify(bookRepository, times(1)).findRows(any(Specification.class));
+        ArgumentCaptor<Collection<BookResponseDTO>> putCaptor = ArgumentCaptor.forClass(Collection.class);
+        verify(bookCache).putAll(putCaptor.capture());
+        assertEquals(2, putCaptor.getValue().size());
+    }
+
+    @Test
+    void getBooksByIds_skipsDatabase_whenAllCached() {
+        BookResponseDTO first = new BookResponseDTO(1L, "One", "Drama", null);
+        BookResponseDTO second = new BookResponseDTO(2L, "Two", "Drama", null);
+        when(bookCache.getAll(Set.of(2L, 1L))).thenReturn(Map.of(1L, first, 2L, second));
+
+        BookBatchResponseDTO result = bookService.getBooksByIds(List.of(2L, 1L));
+
+        assertEquals(List.of(second, first), result.books());
+        assertTrue(result.missingIds().isEmpty());
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void getBooksByIds_rejectsEmptyOrOversizedRequests() {
+        List<Long> tooMany = new ArrayList<>();
+        for (long id = 1; id <= BookService.MAX_PAGE_SIZE + 1; id++) {
+            tooMany.add(id);
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByIds(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksByIds(tooMany));
+        verifyNoInteractions(bookRepository, bookCache);
+    }
+
+    @Test
+    void getBooksByIds_rejectsNullIds() {
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> bookService.getBooksByIds(Arrays.asList(1L, null)));
+
+        assertEquals("Book ids cannot be null", ex.getMessage());
+        verifyNoInteractions(bookRepository, bookCache);
+    }
+
+    @Test
+    void getBooksPage_returnsNextCursor_whenMoreRowsExist() {
+        when(bookRepository.findFirstRows(any(), eq(3))).thenReturn(List.of(row(book1), row(book2), row(book3)));
+
+        BookPageResponseDTO page = bookService.getBooksPage(null, 2);
+
+        assertEquals(2, page.books().size());
+        assertEquals(100L, page.books().get(0).id());
+        assertEquals(101L, page.books().get(1).id());
+        assertEquals(101L, page.nextCursor());
+    }
+
+    @Test
+    void getBooksPage_returnsNullCursor_onLastPage() {
+        when(bookRepository.findFirstRows(any(), eq(3))).thenReturn(List.of(row(book3)));
+
+        BookPageResponseDTO page = bookService.getBooksPage(101L, 2);
 
+        assertEquals(1, page.books().size());
+        assertEquals(200L, page.books().get(0).id());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void getBooksPage_throwsWhenLimitOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage(null, 0));
+        assertThrows(IllegalArgumentException.class, () -> bookService.getBooksPage(null, 101));
+        verifyNoInteractions(bookRepository);
+    }
+
+    @Test
+    void streamAllBooks_passesEachRowToConsumer() {
+        when(bookRepository.streamRows(null, Sort.by("id"))).thenReturn(Stream.of(row(book1), row(book3)));
+
+        List<BookResponseDTO> consumed = new ArrayList<>();
+        bookService.streamAllBooks(consumed::add);
+
+        assertEquals(2, consumed.size());
+        assertEquals(100L, consumed.get(0).id());
+        assertEquals("Jane", consumed.get(0).author().firstName());
+        assertEquals(200L, consumed.get(1).id());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void saveBooks_reportsPerItemResultsAndSavesInOneBatch() {
+        Author newAuthor = new Author();
+        newAuthor.setFirstName("Alice");
+        newAuthor.setLastName("Smith");
+        newAuthor.setEmail("alice@test.com");
+
+        Book newAuthorBook = new Book();
+        newAuthorBook.setTitle("New Book");
+        newAuthorBook.setAuthor(newAuthor);
+
+        Book duplicate = new Book();
+        duplicate.setTitle("Existing Title");
+        duplicate.setAuthor(existingAuthor);
+
+        Book missingTitle = new Book();
+        missingTitle.setAuthor(existingAuthor);
+
+        Book repeatedInRequest = new Book();
+        repeatedInRequest.setTitle(requestBook.getTitle());
+        repeatedInRequest.setAuthor(existingAuthor);
+
+        when(authorRepository.findByEmailIn(any(Collection.class))).thenReturn(List.of(existingAuthor));
+        when(bookRepository.findExistingKeys(any(Collection.class), any(Collection.class)))
+                .thenReturn(List.of(new BookKey("Existing Title", existingAuthor.getEmail())));
+        when(bookRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            long id = 500L;
+            for (Book book : books) {
+                book.setId(id++);
+            }
+            return books;
+        });
+
+        List<BookIngestResultDTO> results = bookService.saveBooks(
+                List.of(requestBook, newAuthorBook, duplicate, missingTitle, repeatedInRequest));
+
+        assertEquals(5, results.size());
+        assertEquals(BookIngestResultDTO.Status.CREATED, results.get(0).status());
+        assertEquals(500L, results.get(0).bookId());
+        assertEquals(BookIngestResultDTO.Status.CREATED, results.get(1).status());
+        assertEquals(501L, results.get(1).bookId());
+        assertEquals(BookIngestResultDTO.Status.REJECTED, results.get(2).status());
+        assertEquals(BookService.DUPLICATE_BOOK_MESSAGE, results.get(2).message());
+        assertEquals(BookIngestResultDTO.Status.REJECTED, results.get(3).status());
+        assertEquals(BookIngestResultDTO.Status.REJECTED, results.get(4).status());
+        assertEquals(BookService.DUPLICATE_BOOK_MESSAGE, results.get(4).message());
+
+        assertSame(existingAuthor, requestBook.getAuthor());
+        verify(authorRepository, times(1)).findByEmailIn(any(Collection.class));
+        verify(authorRepository).saveAll(List.of(newAuthor));
+        verify(bookRepository).saveAll(List.of(requestBook, newAuthorBook));
+        verify(authorNameIndex).indexAfterCommit(newAuthor);
+        verify(catalogFacets).bookAddedAfterCommit(requestBook);
+        verify(catalogFacets).bookAddedAfterCommit(newAuthorBook);
+        verifyNoMoreInteractions(catalogFacets);
+        verify(authorRepository, never()).findByEmail(anyString());
+        verify(bookRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void saveBooks_throwsWhenListIsEmpty() {
+        assertThrows(IllegalArgumentException.class, () -> bookService.saveBooks(List.of()));
+        verifyNoInteractions(bookRepository, authorRepository);
+    }
+
+    private static BookRow row(Book book) {
+        Author author = book.getAuthor();
+        return new BookRow(book.getId(), book.getTitle(), book.getGenere(), author.getId(), author.getFirstName(),
+                author.getLastName(), author.getEmail(), author.getBio(), author.getGenere(), book.getVersion(),
+                author.getVersion());
+    }
+}
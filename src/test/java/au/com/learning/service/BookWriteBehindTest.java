@@ -0,0 +1,152 @@
+package au.com.learning.service;
+
+import au.com.learning.dto.BookIngestResultDTO;
+import au.com.learning.dto.BookWriteStatusDTO;
+import au.com.learning.entity.Author;
+import au.com.learning.entity.Book;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class BookWriteBehindTest {
+
+    private final BookServiceIF bookService = mock(BookServiceIF.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BookWriteBehind writeBehind = new BookWriteBehind(bookService, meterRegistry, 10, 5, Duration.ofMinutes(5));
+
+    @AfterEach
+    void tearDown() {
+        writeBehind.stop();
+    }
+
+    @Test
+    void submit_rejectsInvalidBookInRequestThread() {
+        writeBehind.start();
+        Book book = new Book();
+        book.setTitle("No author");
+
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class, () -> writeBehind.submit(book));
+
+        assertEquals("Book author cannot be null", ex.getMessage());
+        assertEquals(0, meterRegistry.get("library.write-behind.queue.size").gauge().value());
+    }
+
+    @Test
+    void submit_refusesBooks_whenNotRunning() {
+        assertThrows(WriteQueueFullException.class, () -> writeBehind.submit(book("Emma", "jane@ex.com")));
+    }
+
+    @Test
+    void submit_refusesBooks_whenQueueIsFull() throws InterruptedException {
+        writeBehind = new BookWriteBehind(bookService, meterRegistry, 1, 5, Duration.ofMinutes(5));
+        CountDownLatch release = new CountDownLatch(1);
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            release.await();
+            List<Book> books = invocation.getArgument(0);
+            return List.of(BookIngestResultDTO.created(0, books.get(0)));
+        });
+        writeBehind.start();
+
+        writeBehind.submit(book("Emma", "jane@ex.com"));
+        verify(bookService, timeout(1000)).saveBooks(anyList());
+        BookWriteStatusDTO queued = writeBehind.submit(book("Persuasion", "jane@ex.com"));
+
+        assertThrows(WriteQueueFullException.class, () -> writeBehind.submit(book("Sanditon", "jane@ex.com")));
+        assertEquals(BookWriteStatusDTO.Status.PENDING, writeBehind.getStatus(queued.trackingId()).status());
+
+        release.countDown();
+        writeBehind.stop();
+        assertEquals(BookWriteStatusDTO.Status.CREATED, writeBehind.getStatus(queued.trackingId()).status());
+    }
+
+    @Test
+    void stop_leavesNoAcceptedBookPending_whileSubmitsRace() throws Exception {
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            return IntStream.range(0, books.size()).mapToObj(i -> BookIngestResultDTO.created(i, books.get(i))).toList();
+        });
+        writeBehind.start();
+        List<String> accepted = new CopyOnWriteArrayList<>();
+        CompletableFuture<Void> submitter = CompletableFuture.runAsync(() -> {
+            try {
+                while (true) {
+                    accepted.add(writeBehind.submit(book("Emma " + accepted.size(), "jane@ex.com")).trackingId());
+                }
+            } catch (WriteQueueFullException e) {
+                // refused once stopping has started, or while the queue is full
+            }
+        });
+        while (accepted.size() < 5) {
+            Thread.onSpinWait();
+        }
+
+        writeBehind.stop();
+        submitter.get(5, TimeUnit.SECONDS);
+
+        accepted.forEach(id -> assertNotEquals(BookWriteStatusDTO.Status.PENDING, writeBehind.getStatus(id).status()));
+    }
+
+    @Test
+    void write_savesBatchInOneCall_andRecordsEachOutcome() {
+        Book emma = book("Emma", "jane@ex.com");
+        Book duplicate = book("Emma", "jane@ex.com");
+        when(bookService.saveBooks(anyList())).thenAnswer(invocation -> {
+            List<Book> books = invocation.getArgument(0);
+            books.get(0).setId(7L);
+            return List.of(BookIngestResultDTO.created(0, books.get(0)),
+                    BookIngestResultDTO.rejected(1, books.get(1), "Book with the same title by the same author already exists"));
+        });
+
+        writeBehind.write(List.of(new BookWriteBehind.PendingBook("a", emma), new BookWriteBehind.PendingBook("b", duplicate)));
+
+        verify(bookService, times(1)).saveBooks(argThat(books -> books.size() == 2));
+        assertEquals(new BookWriteStatusDTO("a", BookWriteStatusDTO.Status.CREATED, 7L, null), writeBehind.getStatus("a"));
+        assertEquals(BookWriteStatusDTO.Status.REJECTED, writeBehind.getStatus("b").status());
+        assertNull(emma.getId());
+    }
+
+    @Test
+    void write_fallsBackToSingleSaves_whenBatchTransactionFails() {
+        when(bookService.saveBooks(anyList())).thenThrow(new DataIntegrityViolationException("uk_book_title_author"));
+        when(bookService.saveBook(any(Book.class)))
+                .thenReturn(null)
+                .thenThrow(new IllegalArgumentException("Book with the same title by the same author already exists"));
+
+        writeBehind.write(List.of(new BookWriteBehind.PendingBook("a", book("Emma", "jane@ex.com")),
+                new BookWriteBehind.PendingBook("b", book("Persuasion", "jane@ex.com"))));
+
+        verify(bookService, times(2)).saveBook(any(Book.class));
+        assertEquals(BookWriteStatusDTO.Status.CREATED, writeBehind.getStatus("a").status());
+        assertEquals(BookWriteStatusDTO.Status.REJECTED, writeBehind.getStatus("b").status());
+    }
+
+    @Test
+    void getStatus_unknownTrackingId_throws() {
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.getStatus("missing"));
+    }
+
+    private static Book book(String title, String email) {
+        Author author = new Author();
+        author.setFirstName("Jane");
+        author.setEmail(email);
+        Book book = new Book();
+        book.setTitle(title);
+        book.setAuthor(author);
+        return book;
+    }
+}
@@ -6,6 +6,8 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.MockitoAnnotations;
 
+import java.util.Optional;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -40,13 +42,16 @@ class AuthorValidatorTest {
         req.setEmail("dup@test.com");
         req.setFirstName("A");
 
-        when(authorRepository.existsByEmailAndIdNot("dup@test.com", id)).thenReturn(true);
+        Author other = new Author();
+        other.setId(99L);
+        other.setEmail("dup@test.com");
+        when(authorRepository.findByEmail("dup@test.com")).thenReturn(Optional.of(other));
 
         IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
                 () -> authorValidator.validateForUpdate(id, req, existing));
 
         assertTrue(ex.getMessage().toLowerCase().contains("email"));
-        verify(authorRepository, times(1)).existsByEmailAndIdNot("dup@test.com", id);
+        verify(authorRepository, times(1)).findByEmail("dup@test.com");
     }
 
     @Test
@@ -66,7 +71,7 @@ class AuthorValidatorTest {
 
         assertDoesNotThrow(() -> authorValidator.validateForUpdate(id, unchanged, existing));
         assertDoesNotThrow(() -> authorValidator.validateForUpdate(id, nullEmail, existing));
-        verify(authorRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
+        verify(authorRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -85,7 +90,7 @@ class AuthorValidatorTest {
                 () -> authorValidator.validateForUpdate(id, req, existing));
 
         assertTrue(ex.getMessage().toLowerCase().contains("first name or last name"));
-        verify(authorRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
+        verify(authorRepository, never()).findByEmail(anyString());
     }
 
     @Test
@@ -107,7 +112,7 @@ class AuthorValidatorTest {
 
         assertDoesNotThrow(() -> authorValidator.validateForUpdate(id, req1, existing));
         assertDoesNotThrow(() -> authorValidator.validateForUpdate(id, req2, existing));
-        verify(authorRepository, never()).existsByEmailAndIdNot(anyString(), anyLong());
+        verify(authorRepository, never()).findByEmail(anyString());
     }
 }
 